@@ -24,6 +24,7 @@
 
 package me.luizotavio.minecraft.common;
 
+import me.luizotavio.minecraft.common.compression.CompressionPolicy;
 import me.luizotavio.minecraft.common.exception.InternalSlimeException;
 import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.settings.SettingsProperty;
@@ -33,6 +34,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Representation of a slime world.
@@ -95,6 +97,87 @@ public interface SlimeWorld {
     @NotNull
     <T> T getProperty(SettingsProperty<T> property);
 
+    /**
+     * Save the world without stalling the server.
+     * Its state is copied on the calling thread, which must be the main thread,
+     * then encoded and persisted on the save executor of {@link SlimeKorld}.
+     * Saves of the same world are persisted in the order they were requested.
+     * @return A future completed once the world is persisted.
+     */
+    @NotNull
+    default CompletableFuture<Void> save() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        future.completeExceptionally(new UnsupportedOperationException("Saving isn't supported by " + getClass().getSimpleName()));
+
+        return future;
+    }
+
+    /**
+     * Same as {@link #save()}, but compressed with the given policy instead of the one of the world.
+     * @param policy The compression policy of this save only.
+     * @return A future completed once the world is persisted.
+     */
+    @NotNull
+    default CompletableFuture<Void> save(@NotNull CompressionPolicy policy) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        future.completeExceptionally(new UnsupportedOperationException("Saving with a compression policy isn't supported by " + getClass().getSimpleName()));
+
+        return future;
+    }
+
+    /**
+     * @return The compression policy of regular saves, like autosaves.
+     */
+    @NotNull
+    default CompressionPolicy getCompressionPolicy() {
+        return CompressionPolicy.DEFAULT;
+    }
+
+    /**
+     * Update the compression policy of regular saves.
+     * @param policy The new policy.
+     */
+    default void setCompressionPolicy(@NotNull CompressionPolicy policy) {
+        throw new UnsupportedOperationException("Changing the compression policy isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return The compression policy of saves done while unloading, which nobody waits on.
+     */
+    @NotNull
+    default CompressionPolicy getArchivalCompressionPolicy() {
+        return CompressionPolicy.DEFAULT;
+    }
+
+    /**
+     * Update the compression policy of saves done while unloading.
+     * @param policy The new policy.
+     */
+    default void setArchivalCompressionPolicy(@NotNull CompressionPolicy policy) {
+        throw new UnsupportedOperationException("Changing the compression policy isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Chunks are warmed up from the spawn outwards when {@code INITIALIZE_ALL_CHUNKS} is set,
+     * within the tick budget of {@code WARMUP_TICK_BUDGET}, so the world is joinable right away.
+     * A budget of 0 loads every chunk while initializing instead.
+     * @return A future completed once every chunk is loaded, already completed if the world
+     *         doesn't warm up, and cancelled if the world is unloaded before.
+     */
+    @NotNull
+    default CompletableFuture<Void> getWarmup() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * @return The share of chunks already warmed up, from 0 to 1.
+     */
+    default double getWarmupProgress() {
+        return 1;
+    }
+
     /**
      * Reset the world if it's not reseted.
      * @return The reset world instance.
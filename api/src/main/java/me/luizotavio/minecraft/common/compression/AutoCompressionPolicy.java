@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.compression;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Estimates the time of each level from its usual single core throughput.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+final class AutoCompressionPolicy implements CompressionPolicy {
+
+    // Fastest first, throughput in bytes per microsecond
+    private static final int[] LEVELS = { 1, 3, 5, 7, 9, 12, 15, 19 };
+    private static final int[] THROUGHPUT = { 500, 340, 140, 100, 70, 40, 25, 6 };
+
+    private final long budgetNanos;
+
+    AutoCompressionPolicy(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    @Override
+    public int level(@NotNull SlimeBlock block, int size) {
+        int level = LEVELS[0];
+
+        for (int index = 0; index < LEVELS.length; index++) {
+            long nanos = size * 1000L / THROUGHPUT[index];
+
+            if (nanos > budgetNanos) {
+                break;
+            }
+
+            level = LEVELS[index];
+        }
+
+        return level;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.compression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * Delegates every block to its own policy.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+final class BlockCompressionPolicy implements CompressionPolicy {
+
+    private final Map<SlimeBlock, CompressionPolicy> policies;
+
+    BlockCompressionPolicy(@NotNull Map<SlimeBlock, CompressionPolicy> policies) {
+        this.policies = policies;
+    }
+
+    @Override
+    public int level(@NotNull SlimeBlock block, int size) {
+        return policies.get(block).level(block, size);
+    }
+
+    @Override
+    public int windowLog(@NotNull SlimeBlock block, int size) {
+        return policies.get(block).windowLog(block, size);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.compression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the zstd level of each compressed block, trading CPU for storage.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+@FunctionalInterface
+public interface CompressionPolicy {
+
+    /**
+     * The level used by zstd when none is given.
+     */
+    CompressionPolicy DEFAULT = fixed(3);
+
+    /**
+     * @param block The block being compressed.
+     * @param size The uncompressed size of the block.
+     * @return The zstd level, negative levels are faster than 1.
+     */
+    int level(@NotNull SlimeBlock block, int size);
+
+    /**
+     * @param block The block being compressed.
+     * @param size The uncompressed size of the block.
+     * @return The window log of long distance matching, or 0 to disable it.
+     * Never above 27, so readers don't need a larger window to decompress it.
+     */
+    default int windowLog(@NotNull SlimeBlock block, int size) {
+        return 0;
+    }
+
+    /**
+     * @param level The zstd level of every block.
+     */
+    @NotNull
+    static CompressionPolicy fixed(int level) {
+        return new FixedCompressionPolicy(level, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cheapest level that still compresses, meant for autosaves.
+     */
+    @NotNull
+    static CompressionPolicy fast() {
+        return fixed(1);
+    }
+
+    /**
+     * Highest practical level, with long distance matching on blocks large enough to benefit from it.
+     * Meant for saves nobody waits on, like unloads.
+     */
+    @NotNull
+    static CompressionPolicy archival() {
+        return new FixedCompressionPolicy(19, 27, 1 << 20);
+    }
+
+    /**
+     * Picks the highest level expected to compress a block within the budget, so small blocks
+     * are compressed harder than large ones.
+     * @param budget The CPU time a single block may take.
+     * @param unit The unit of the budget.
+     */
+    @NotNull
+    static CompressionPolicy auto(long budget, @NotNull TimeUnit unit) {
+        return new AutoCompressionPolicy(unit.toNanos(budget));
+    }
+
+    /**
+     * @param policies The policy of each block.
+     * @param fallback The policy of the blocks without one.
+     */
+    @NotNull
+    static CompressionPolicy perBlock(@NotNull Map<SlimeBlock, CompressionPolicy> policies, @NotNull CompressionPolicy fallback) {
+        Map<SlimeBlock, CompressionPolicy> copy = new EnumMap<>(SlimeBlock.class);
+
+        for (SlimeBlock block : SlimeBlock.values()) {
+            copy.put(block, policies.getOrDefault(block, fallback));
+        }
+
+        return new BlockCompressionPolicy(copy);
+    }
+}
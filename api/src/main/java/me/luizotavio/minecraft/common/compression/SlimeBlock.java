@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.compression;
+
+/**
+ * Every compressed block of a slime file, so a {@link CompressionPolicy} can treat each one differently.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public enum SlimeBlock {
+    /**
+     * A single chunk frame, small and written for every chunk.
+     */
+    CHUNK,
+    /**
+     * Sections shared between chunks, one block per save.
+     */
+    SHARED_SECTIONS,
+    TILE_ENTITIES,
+    ENTITIES,
+    EXTRA_DATA,
+    MAP_DATA,
+    /**
+     * A record appended to the journal, written on the hot path of autosaves.
+     */
+    JOURNAL
+}
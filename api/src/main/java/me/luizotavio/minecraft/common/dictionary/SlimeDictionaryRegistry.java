@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.dictionary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Registry for trained zstd dictionaries, keyed by the id zstd stored inside each of them.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public interface SlimeDictionaryRegistry {
+
+    /**
+     * Registers a trained dictionary.
+     *
+     * @param dictionary The dictionary content.
+     * @return The id of the dictionary.
+     * @throws IllegalArgumentException If the dictionary has no id, like raw content dictionaries.
+     */
+    int register(byte @NotNull [] dictionary);
+
+    /**
+     * Unregisters a dictionary.
+     * Files compressed with it can't be read until it's registered again.
+     *
+     * @param id The id of the dictionary.
+     */
+    void unregister(int id);
+
+    /**
+     * Check if a dictionary is registered.
+     * @param id The id of the dictionary.
+     * @return True if the dictionary is registered, false otherwise.
+     */
+    boolean isRegistered(int id);
+
+    /**
+     * Retrieve the content of a dictionary.
+     * @param id The id of the dictionary.
+     * @return The dictionary content, or null if it isn't registered.
+     */
+    byte @Nullable [] getDictionary(int id);
+
+    /**
+     * Retrieve the ids of every registered dictionary.
+     * @return The collection of ids.
+     */
+    @NotNull Collection<Integer> getRegistered();
+
+}
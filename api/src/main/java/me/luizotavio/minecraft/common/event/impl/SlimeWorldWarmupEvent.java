@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.common.event.impl;
+
+import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.common.event.SlimeEvent;
+
+/**
+ * Bukkit event that is called when every chunk of a slime world is warmed up.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeWorldWarmupEvent extends SlimeEvent {
+
+    private final SlimeWorld slimeWorld;
+    private final int chunkCount;
+    private final long elapsedMillis;
+
+    public SlimeWorldWarmupEvent(SlimeWorld slimeWorld, int chunkCount, long elapsedMillis) {
+        this.slimeWorld = slimeWorld;
+        this.chunkCount = chunkCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the slime world of the event.
+     * @return The slime world of the event.
+     */
+    public SlimeWorld getSlimeWorld() {
+        return slimeWorld;
+    }
+
+    /**
+     * Gets how many chunks were loaded.
+     * @return The chunk count of the warm-up.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Gets how long the warm-up took, since the world was initialized.
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
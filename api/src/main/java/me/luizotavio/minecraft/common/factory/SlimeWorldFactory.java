@@ -28,6 +28,7 @@ import me.luizotavio.minecraft.common.SlimeWorld;
 import me.luizotavio.minecraft.common.exception.InternalSlimeException;
 import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.settings.SettingsProperty;
+import me.luizotavio.minecraft.common.strategy.SlimeDataWriter;
 import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
 import me.luizotavio.minecraft.common.util.Pair;
 import me.luizotavio.minecraft.common.version.WorldVersion;
@@ -85,4 +86,17 @@ public interface SlimeWorldFactory {
     @NotNull
     Pair<SlimeWorld, byte[]> transform(@NotNull World world) throws InternalSlimeException;
 
+    /**
+     * Transform the bukkit world into a slime world and save it right away,
+     * streaming the data into {@link SlimeLoaderStrategy#save(SlimeWorld, SlimeDataWriter)} instead of returning it.
+     * Worlds that already are slime worlds are returned as they are.
+     * @param world The bukkit world.
+     * @return The slime world.
+     * @throws InternalSlimeException If an error occurs.
+     */
+    @NotNull
+    default SlimeWorld convert(@NotNull World world) throws InternalSlimeException {
+        throw new InternalSlimeException("Conversion isn't supported by " + getClass().getSimpleName());
+    }
+
 }
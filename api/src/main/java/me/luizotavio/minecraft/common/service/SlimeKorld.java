@@ -25,12 +25,16 @@
 package me.luizotavio.minecraft.common.service;
 
 import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
+import me.luizotavio.minecraft.common.dictionary.SlimeDictionaryRegistry;
 import me.luizotavio.minecraft.common.factory.SlimeWorldFactory;
 import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
 import org.apache.logging.log4j.Logger;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Service to be registered in services manager.
  * It should be used when that library is used as a dependency.
@@ -72,6 +76,14 @@ public interface SlimeKorld {
      */
     SlimeDataRegistry getDataRegistry();
 
+    /**
+     * Retrieve the zstd dictionary registry of the service.
+     * @return The dictionary registry of the service.
+     */
+    default SlimeDictionaryRegistry getDictionaryRegistry() {
+        throw new UnsupportedOperationException("Dictionaries isn't supported by " + getClass().getSimpleName());
+    }
+
     /**
      * Retrieve the loader strategy of the service.
      * @return The loader strategy of the service.
@@ -85,4 +97,90 @@ public interface SlimeKorld {
      */
     void setLoaderStrategy(@NotNull SlimeLoaderStrategy loaderStrategy);
 
+    /**
+     * Retrieve the pool used to decode chunks in parallel.
+     * @return The decode pool of the service.
+     */
+    default ForkJoinPool getDecodePool() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Update the pool used to decode chunks in parallel.
+     * @param decodePool The new decode pool.
+     */
+    default void setDecodePool(@NotNull ForkJoinPool decodePool) {
+        throw new UnsupportedOperationException("Changing the decode pool isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Retrieve the pool used to encode and compress chunks in parallel while saving.
+     * @return The encode pool of the service.
+     */
+    default ForkJoinPool getEncodePool() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Update the pool used to encode and compress chunks in parallel while saving.
+     * @param encodePool The new encode pool.
+     */
+    default void setEncodePool(@NotNull ForkJoinPool encodePool) {
+        throw new UnsupportedOperationException("Changing the encode pool isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Retrieve the executor that encodes and persists world snapshots.
+     * @return The save executor of the service.
+     */
+    default Executor getSaveExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Update the executor that encodes and persists world snapshots.
+     * @param saveExecutor The new save executor.
+     */
+    default void setSaveExecutor(@NotNull Executor saveExecutor) {
+        throw new UnsupportedOperationException("Changing the save executor isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Retrieve how many parsed worlds are kept for worlds with the template cache property.
+     * @return The template cache capacity of the service.
+     */
+    default int getTemplateCacheCapacity() {
+        return 0;
+    }
+
+    /**
+     * Update how many parsed worlds are kept, the least recently used ones are evicted.
+     * @param capacity The new capacity, 0 to keep none.
+     */
+    default void setTemplateCacheCapacity(int capacity) {
+        throw new UnsupportedOperationException("The template cache isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Retrieve how many bytes the parsed worlds may use.
+     * @return The template cache memory limit of the service.
+     */
+    default long getTemplateCacheMemoryLimit() {
+        return 0;
+    }
+
+    /**
+     * Update how many bytes the parsed worlds may use, the least recently used ones are evicted.
+     * @param memoryLimit The new memory limit in bytes.
+     */
+    default void setTemplateCacheMemoryLimit(long memoryLimit) {
+        throw new UnsupportedOperationException("The template cache isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Waits for the pending saves of the default save executor and releases the native resources of the service.
+     */
+    default void shutdown() {
+    }
+
 }
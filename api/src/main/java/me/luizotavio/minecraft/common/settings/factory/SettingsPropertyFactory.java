@@ -45,6 +45,19 @@ public class SettingsPropertyFactory {
     public static final SettingsProperty<Boolean> SHOULD_SAVE = SettingsProperty.createBooleanProperty("shouldSave", false, false);
 
     public static final SettingsProperty<Boolean> INITIALIZE_ALL_CHUNKS = SettingsProperty.createBooleanProperty("initializeAllChunks", false, false);
+    public static final SettingsProperty<Integer> WARMUP_TICK_BUDGET = SettingsProperty.createIntegerProperty("warmupTickBudget", 5, 5);
+    public static final SettingsProperty<Boolean> PARALLEL_CHUNK_DECODE = SettingsProperty.createBooleanProperty("parallelChunkDecode", false, false);
+    public static final SettingsProperty<Boolean> PARALLEL_COMPRESSION = SettingsProperty.createBooleanProperty("parallelCompression", false, false);
+    public static final SettingsProperty<Boolean> TRIM_EMPTY = SettingsProperty.createBooleanProperty("trimEmpty", false, false);
+    public static final SettingsProperty<Integer> UNLOADED_CHUNK_CACHE = SettingsProperty.createIntegerProperty("unloadedChunkCache", 64, 64);
+    public static final SettingsProperty<Integer> ENCODED_CHUNK_CACHE = SettingsProperty.createIntegerProperty("encodedChunkCache", 4096, 4096);
+    public static final SettingsProperty<Boolean> TEMPLATE_CACHE = SettingsProperty.createBooleanProperty("templateCache", false, false);
+    public static final SettingsProperty<Boolean> SHARED_SECTIONS = SettingsProperty.createBooleanProperty("sharedSections", true, true);
+    public static final SettingsProperty<Boolean> LEGACY_FORMAT = SettingsProperty.createBooleanProperty("legacyFormat", false, false);
+    public static final SettingsProperty<Integer> DICTIONARY_ID = SettingsProperty.createIntegerProperty("dictionaryId", 0, 0);
+    public static final SettingsProperty<Boolean> JOURNAL = SettingsProperty.createBooleanProperty("journal", false, false);
+    public static final SettingsProperty<Boolean> SKIP_UNCHANGED = SettingsProperty.createBooleanProperty("skipUnchanged", false, false);
+    public static final SettingsProperty<Integer> JOURNAL_COMPACTION_PERCENT = SettingsProperty.createIntegerProperty("journalCompactionPercent", 50, 50);
     public static final SettingsProperty<Difficulty> DIFFICULTY = SettingsProperty.createEnumProperty("difficulty", Difficulty.NORMAL, Difficulty.NORMAL, Difficulty.class);
     public static final SettingsProperty<GameMode> GAMEMODE = SettingsProperty.createEnumProperty("gamemode", GameMode.SURVIVAL, GameMode.SURVIVAL, GameMode.class);
 
@@ -29,6 +29,10 @@ import me.luizotavio.minecraft.common.exception.InternalSlimeException;
 import me.luizotavio.minecraft.common.service.SlimeKorld;
 import org.bukkit.plugin.Plugin;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Loader strategy to load/save slime world.
  * Unique instance for the delegator {@link SlimeKorld} to load/save the world.
@@ -53,6 +57,20 @@ public interface SlimeLoaderStrategy {
      */
     byte[] load(String name, boolean force) throws InternalSlimeException;
 
+    /**
+     * Load and retrieve the compressed data of the world as a buffer.
+     * Implementations may return a direct buffer to avoid copying the data into the heap.
+     * A memory-mapped buffer is held as long as the world is loaded, some platforms can't replace the file meanwhile.
+     * @param name The name of the world.
+     * @return The compressed data of the world.
+     * @throws InternalSlimeException If the world is not found.
+     */
+    default ByteBuffer loadBuffer(String name) throws InternalSlimeException {
+        byte[] data = load(name, false);
+
+        return data == null ? null : ByteBuffer.wrap(data);
+    }
+
     /**
      * Save the compressed data of the world.
      * @param slimeWorld The slime world to be saved.
@@ -61,4 +79,63 @@ public interface SlimeLoaderStrategy {
      */
     void save(SlimeWorld slimeWorld, byte[] data) throws InternalSlimeException;
 
+    /**
+     * Save the compressed data of the world as it's written, instead of receiving it as a whole.
+     * The previous data must only be replaced once the writer returns, a failing writer saves nothing.
+     * Strategies that can't stream buffer the data and call {@link #save(SlimeWorld, byte[])}.
+     * @param slimeWorld The slime world to be saved.
+     * @param writer The writer of the compressed data.
+     * @throws InternalSlimeException If the data can't be written or saved.
+     */
+    default void save(SlimeWorld slimeWorld, SlimeDataWriter writer) throws InternalSlimeException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try {
+            writer.write(outputStream);
+        } catch (IOException e) {
+            throw new InternalSlimeException("Error writing world data", e);
+        }
+
+        save(slimeWorld, outputStream.toByteArray());
+    }
+
+    /**
+     * Check if the strategy is able to keep a journal next to each world,
+     * worlds with the journal property fall back to full saves otherwise.
+     * @return If the journal methods are implemented.
+     */
+    default boolean supportsJournal() {
+        return false;
+    }
+
+    /**
+     * Load the journal of the world, to be replayed over its data.
+     * @param name The name of the world.
+     * @return The journal, or null if the world has none.
+     * @throws InternalSlimeException If the journal exists but can't be read.
+     */
+    default ByteBuffer loadJournal(String name) throws InternalSlimeException {
+        return null;
+    }
+
+    /**
+     * Append records to the end of the journal, they must be durable once this method returns.
+     * @param slimeWorld The slime world that owns the journal.
+     * @param records The encoded records.
+     * @throws InternalSlimeException If the records can't be appended.
+     */
+    default void appendJournal(SlimeWorld slimeWorld, byte[] records) throws InternalSlimeException {
+        throw new InternalSlimeException("Journal isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Replace the journal by an empty one, called right after the world data was compacted by {@link #save(SlimeWorld, byte[])}.
+     * @param slimeWorld The slime world that owns the journal.
+     * @param header The header of the new journal.
+     * @throws InternalSlimeException If the journal can't be written.
+     */
+    default void resetJournal(SlimeWorld slimeWorld, byte[] header) throws InternalSlimeException {
+        throw new InternalSlimeException("Journal isn't supported by " + getClass().getSimpleName());
+    }
+
 }
@@ -33,10 +33,35 @@ package me.luizotavio.minecraft.common.version;
  */
 public class SlimeVersion {
 
+    /**
+     * The oldest version of the slime format this library can still read, and write for worlds with the legacy format property.
+     */
+    public static final byte LEGACY_SLIME_VERSION = 0x09;
+
+    /**
+     * Adds the id of the zstd dictionary used by every block right after the world version, 0 means none.
+     */
+    public static final byte DICTIONARY_SLIME_VERSION = 0x0A;
+
+    /**
+     * Stores every chunk as its own zstd frame, with a table of the frame sizes right after the chunk bitmap.
+     */
+    public static final byte FRAMED_SLIME_VERSION = 0x0B;
+
+    /**
+     * Sections start with an encoding byte: raw block ids, a single block or a bit-packed palette.
+     */
+    public static final byte PALETTE_SLIME_VERSION = 0x0C;
+
+    /**
+     * Adds a block of sections shared by back-references before the frame table, and light arrays can be a constant nibble.
+     */
+    public static final byte SHARED_SECTIONS_SLIME_VERSION = 0x0D;
+
     /**
      * The version of the library.
      */
-    public static final byte CURRENT_SLIME_VERSION = 0x09;
+    public static final byte CURRENT_SLIME_VERSION = SHARED_SECTIONS_SLIME_VERSION;
 
     /**
      * Current magic header of the slime format.
@@ -46,5 +46,7 @@ object Versions {
     const val nbtApi = "2.10.0"
     const val zstdVersion = "1.5.2-3"
 
+    const val junit = "5.9.2"
+
     const val minecraftVersion = "1.8.8-R0.1-SNAPSHOT"
 }
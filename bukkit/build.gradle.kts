@@ -3,6 +3,7 @@ import me.luizotavio.minecraft.gradle.*
 plugins {
     id("com.github.johnrengelman.shadow") version "7.1.2"
     id("maven-publish")
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 setupMinecraft()
@@ -13,6 +14,20 @@ dependencies {
         "com.github.luben:zstd-jni:${Versions.zstdVersion}",
         "de.tr7zw:item-nbt-api-plugin:${Versions.nbtApi}"
     )
+
+    // Spigot is compile only, benchmarks and tests run outside of a server
+    add("jmh", "org.spigotmc:spigot:${Versions.minecraftVersion}")
+    add("testImplementation", "org.spigotmc:spigot:${Versions.minecraftVersion}")
+    add("testImplementation", "org.junit.jupiter:junit-jupiter:${Versions.junit}")
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
+}
+
+jmh {
+    jmhVersion.set("1.36")
+    profilers.add("gc")
 }
 
 tasks.shadowJar {
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.benchmark;
+
+import com.google.common.io.ByteStreams;
+import me.luizotavio.minecraft.codec.SlimeOutputStream;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
+
+/**
+ * Saves synthetic worlds of growing sizes, run with the gc profiler.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlimeSaveBenchmark {
+
+    @Param({ "64", "1024", "4096" })
+    public int chunkCount;
+
+    @Param({ "4" })
+    public int sectionCount;
+
+    private SlimeWorldSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(chunkCount);
+
+        int side = (int) Math.ceil(Math.sqrt(chunkCount));
+
+        List<ProtoSlimeChunk> chunks = new ArrayList<>(chunkCount);
+
+        for (int index = 0; index < chunkCount; index++) {
+            chunks.add(createChunk(index % side, index / side, random));
+        }
+
+        snapshot = new SlimeWorldSnapshot(
+            SUPPORTED_VERSION,
+            0,
+            null,
+            chunks,
+            false,
+            false,
+            new NBTTagCompound(),
+            new NBTTagCompound(),
+            null
+        );
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        new SlimeOutputStream(ByteStreams.nullOutputStream())
+            .write(snapshot);
+    }
+
+    private ProtoSlimeChunk createChunk(int x, int z, Random random) {
+        ProtoSlimeSection[] sections = new ProtoSlimeSection[SECTION_PER_CHUNK];
+
+        for (int y = 0; y < sectionCount; y++) {
+            char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+            for (int block = 0; block < blockIds.length; block++) {
+                blockIds[block] = (char) ((1 + random.nextInt(8)) << 4);
+            }
+
+            byte[] skyLight = new byte[NIBBLE_ARRAY_SIZE];
+            Arrays.fill(skyLight, (byte) 0xFF);
+
+            sections[y] = new ProtoSlimeSection(y, blockIds, new byte[NIBBLE_ARRAY_SIZE], skyLight);
+        }
+
+        int[] heightMap = new int[HEIGHTMAP_SIZE];
+        Arrays.fill(heightMap, sectionCount << 4);
+
+        return new ProtoSlimeChunk(x, z, sections, heightMap, new byte[BIOME_SIZE]);
+    }
+}
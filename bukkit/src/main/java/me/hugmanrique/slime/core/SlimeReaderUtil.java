@@ -58,19 +58,54 @@ public final class SlimeReaderUtil {
      * @param data the block data array
      */
     public static void readBlockIds(final char[] blockIds, final byte[] blocks, final NibbleArray data) {
-        for (int i = 0; i < blockIds.length; i++) {
-            int x = i & 0xF;
-            int y = i >> 8 & 0xF;
-            int z = i >> 4 & 0xF;
+        readBlockIds(blockIds, blocks, data.a());
+    }
+
+    /**
+     * Converts the specified block and packed block data arrays to
+     * internal block IDs, only doing lookups in the remap table.
+     *
+     * @param blockIds the array to write the ids to
+     * @param blocks the block array
+     * @param data the packed block data nibbles, two blocks per byte
+     */
+    public static void readBlockIds(final char[] blockIds, final byte[] blocks, final byte[] data) {
+        final char[] table = RemapTable.TABLE;
 
-            int id = blocks[i] & 0xFF;
-            int blockData = data.a(x, y, z);
+        for (int i = 0; i < blockIds.length; i += 2) {
+            int nibbles = data[i >> 1];
 
-            blockIds[i] = getBlockId(id, blockData);
+            blockIds[i] = table[(blocks[i] & 0xFF) << 4 | nibbles & 0xF];
+            blockIds[i + 1] = table[(blocks[i + 1] & 0xFF) << 4 | nibbles >> 4 & 0xF];
         }
     }
 
+    /**
+     * Remaps the raw block id and data into the internal block id.
+     *
+     * @param id the raw block id
+     * @param blockData the raw block data
+     * @return the internal block id
+     */
     public static char getBlockId(int id, int blockData) {
+        return getBlockId(id << 4 | blockData);
+    }
+
+    /**
+     * Remaps the raw packed (id << 4 | data) block into the internal block id.
+     *
+     * @param packed the raw packed block
+     * @return the internal block id
+     */
+    public static char getBlockId(int packed) {
+        if (packed >= 0 && packed < RemapTable.TABLE.length) {
+            return RemapTable.TABLE[packed];
+        }
+
+        return remap(packed >> 4, packed & 0xF);
+    }
+
+    private static char remap(int id, int blockData) {
         int packed = id << 4 | blockData;
 
         if (Block.d.a(packed) == null) {
@@ -91,4 +126,19 @@ public final class SlimeReaderUtil {
 
         return (char) packed;
     }
+
+    /**
+     * Every raw packed block mapped to its internal id.
+     * Built once, on the first lookup, as the block registry must be ready by then.
+     */
+    private static final class RemapTable {
+
+        private static final char[] TABLE = new char[1 << 16];
+
+        static {
+            for (int packed = 0; packed < TABLE.length; packed++) {
+                TABLE[packed] = remap(packed >> 4, packed & 0xF);
+            }
+        }
+    }
 }
@@ -24,12 +24,17 @@
 
 package me.luizotavio.minecraft;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import me.luizotavio.minecraft.codec.ZstdContexts;
 import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
 import me.luizotavio.minecraft.common.factory.SlimeWorldFactory;
 import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
+import me.luizotavio.minecraft.common.dictionary.SlimeDictionaryRegistry;
 import me.luizotavio.minecraft.data.BukkitSlimeDataRegistry;
+import me.luizotavio.minecraft.dictionary.BukkitSlimeDictionaryRegistry;
 import me.luizotavio.minecraft.factory.BukkitSlimeWorldFactory;
+import me.luizotavio.minecraft.prototype.SlimeTemplateCache;
 import me.luizotavio.minecraft.strategy.FileSlimeLoaderStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -41,6 +46,12 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -50,6 +61,9 @@ public class BukkitSlimeKorld implements SlimeKorld {
 
     private static final Logger SLIME_KORLD_LOGGER = LogManager.getLogger("SlimeKorld");
 
+    private static final int SAVE_THREADS = 2;
+    private static final int SHUTDOWN_TIMEOUT = 30;
+
     public static SlimeKorld createInstance(@NotNull Plugin plugin) {
         Objects.requireNonNull(plugin, "plugin cannot be null");
 
@@ -72,8 +86,15 @@ public class BukkitSlimeKorld implements SlimeKorld {
 
     private final SlimeWorldFactory slimeWorldFactory;
     private final SlimeDataRegistry slimeDataRegistry;
+    private final SlimeDictionaryRegistry slimeDictionaryRegistry;
+    private final SlimeTemplateCache templateCache = new SlimeTemplateCache();
 
     private SlimeLoaderStrategy slimeLoaderStrategy;
+    private ForkJoinPool decodePool = ForkJoinPool.commonPool();
+    private ForkJoinPool encodePool = ForkJoinPool.commonPool();
+    private final ExecutorService defaultSaveExecutor = createSaveExecutor();
+
+    private Executor saveExecutor = defaultSaveExecutor;
 
     protected BukkitSlimeKorld(
         @NotNull Plugin plugin
@@ -82,6 +103,7 @@ public class BukkitSlimeKorld implements SlimeKorld {
 
         this.slimeWorldFactory = new BukkitSlimeWorldFactory(this);
         this.slimeDataRegistry = new BukkitSlimeDataRegistry();
+        this.slimeDictionaryRegistry = new BukkitSlimeDictionaryRegistry();
 
         this.slimeLoaderStrategy = new FileSlimeLoaderStrategy(
             plugin,
@@ -114,6 +136,11 @@ public class BukkitSlimeKorld implements SlimeKorld {
         return slimeDataRegistry;
     }
 
+    @Override
+    public SlimeDictionaryRegistry getDictionaryRegistry() {
+        return slimeDictionaryRegistry;
+    }
+
     @Override
     public SlimeLoaderStrategy getLoaderStrategy() {
         return slimeLoaderStrategy;
@@ -123,4 +150,96 @@ public class BukkitSlimeKorld implements SlimeKorld {
     public void setLoaderStrategy(@NotNull SlimeLoaderStrategy loaderStrategy) {
         this.slimeLoaderStrategy = loaderStrategy;
     }
+
+    @Override
+    public Executor getSaveExecutor() {
+        return saveExecutor;
+    }
+
+    @Override
+    public void setSaveExecutor(@NotNull Executor saveExecutor) {
+        this.saveExecutor = Objects.requireNonNull(saveExecutor, "saveExecutor cannot be null");
+    }
+
+    @Override
+    public ForkJoinPool getDecodePool() {
+        return decodePool;
+    }
+
+    @Override
+    public void setDecodePool(@NotNull ForkJoinPool decodePool) {
+        this.decodePool = Objects.requireNonNull(decodePool, "decodePool cannot be null");
+    }
+
+    @Override
+    public ForkJoinPool getEncodePool() {
+        return encodePool;
+    }
+
+    @Override
+    public void setEncodePool(@NotNull ForkJoinPool encodePool) {
+        this.encodePool = Objects.requireNonNull(encodePool, "encodePool cannot be null");
+    }
+
+    @Override
+    public int getTemplateCacheCapacity() {
+        return templateCache.getCapacity();
+    }
+
+    @Override
+    public void setTemplateCacheCapacity(int capacity) {
+        templateCache.setCapacity(capacity);
+    }
+
+    @Override
+    public long getTemplateCacheMemoryLimit() {
+        return templateCache.getMemoryLimit();
+    }
+
+    @Override
+    public void setTemplateCacheMemoryLimit(long memoryLimit) {
+        templateCache.setMemoryLimit(memoryLimit);
+    }
+
+    /**
+     * @return The parsed worlds kept for worlds with the template cache property.
+     */
+    public SlimeTemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    @Override
+    public void shutdown() {
+        defaultSaveExecutor.shutdown();
+
+        try {
+            if (!defaultSaveExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                getLogger().warn("Pending saves did not finish in " + SHUTDOWN_TIMEOUT + " seconds");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        ZstdContexts.closeIdle();
+    }
+
+    /**
+     * Idle threads time out, so pending saves still finish on shutdown without keeping the JVM alive.
+     */
+    private static ExecutorService createSaveExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            SAVE_THREADS,
+            SAVE_THREADS,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("SlimeKorld Save Thread #%d")
+                .build()
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
 }
@@ -25,10 +25,14 @@
 package me.luizotavio.minecraft;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import de.tr7zw.nbtapi.NBTContainer;
-import me.luizotavio.minecraft.codec.SlimeInputStream;
+import me.luizotavio.minecraft.codec.EncodedChunkCache;
+import me.luizotavio.minecraft.codec.SlimeBufferReader;
+import me.luizotavio.minecraft.codec.SlimeJournal;
 import me.luizotavio.minecraft.codec.SlimeOutputStream;
 import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.common.compression.CompressionPolicy;
 import me.luizotavio.minecraft.common.data.AbstractSlimeData;
 import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
 import me.luizotavio.minecraft.common.event.impl.SlimeWorldInitializeEvent;
@@ -42,9 +46,17 @@ import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
 import me.luizotavio.minecraft.common.version.WorldVersion;
 import me.luizotavio.minecraft.data.container.BukkitSlimePersistentContainer;
 import me.luizotavio.minecraft.generator.EmptyWorldGenerator;
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
 import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.SlimeTemplate;
+import me.luizotavio.minecraft.prototype.SlimeTemplateCache;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
 import me.luizotavio.minecraft.world.CraftSlimeWorld;
+import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
 import me.luizotavio.minecraft.world.data.SlimeDataManager;
+import me.luizotavio.minecraft.world.warmup.SlimeChunkWarmup;
 import net.minecraft.server.v1_8_R3.*;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -53,12 +65,21 @@ import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -68,11 +89,29 @@ public class BukkitSlimeWorld implements SlimeWorld {
 
     private static final MinecraftServer MINECRAFT_SERVER = MinecraftServer.getServer();
 
+    private static final int WARMUP_DECODE_AHEAD = 4;
+
     private final String name;
     private final WorldVersion worldVersion;
 
     private final Map<String, SettingsProperty<?>> properties = new Hashtable<>();
 
+    private volatile CompressionPolicy compressionPolicy = CompressionPolicy.DEFAULT;
+    private volatile CompressionPolicy archivalCompressionPolicy = CompressionPolicy.DEFAULT;
+
+    // Tail of the saves being persisted, so an older snapshot never overwrites a newer one
+    private CompletableFuture<Void> pendingSave = CompletableFuture.completedFuture(null);
+
+    // Only touched by the save being persisted, the first one of each session always compacts
+    private boolean journalReady;
+    private long journalSize, baseSize;
+
+    // Digest of the last persisted save, only valid while hashPersisted is set
+    private boolean hashPersisted;
+    private long persistedHash;
+
+    private volatile SlimeChunkWarmup warmup;
+
     public BukkitSlimeWorld(
         @NotNull String name,
         @NotNull WorldVersion worldVersion,
@@ -143,6 +182,20 @@ public class BukkitSlimeWorld implements SlimeWorld {
         return target.getValue();
     }
 
+    @Override
+    public @NotNull CompletableFuture<Void> getWarmup() {
+        SlimeChunkWarmup warmup = this.warmup;
+
+        return warmup == null ? CompletableFuture.completedFuture(null) : warmup.getFuture();
+    }
+
+    @Override
+    public double getWarmupProgress() {
+        SlimeChunkWarmup warmup = this.warmup;
+
+        return warmup == null ? 1 : warmup.getProgress();
+    }
+
     @Override
     public @Nullable World reset() throws InternalSlimeException {
         World world = getBukkitWorld();
@@ -158,7 +211,7 @@ public class BukkitSlimeWorld implements SlimeWorld {
             throw new InternalSlimeException("World reset cancelled");
         }
 
-        Bukkit.unloadWorld(world, false);
+        unloadWorld(world);
 
         return initialize();
     }
@@ -179,21 +232,224 @@ public class BukkitSlimeWorld implements SlimeWorld {
         }
 
         if (getProperty(SettingsPropertyFactory.SHOULD_SAVE)) {
-            SlimeKorld slimeKorld = getKorld();
+            CompletableFuture<Void> future = save(true);
+
+            // Nothing would be left to persist it once the server stops
+            if (!MINECRAFT_SERVER.isRunning()) {
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    throw new InternalSlimeException("Failed to save world data", e.getCause());
+                }
+            }
+        }
+
+        // Already captured, saving again while unloading would only capture the same state
+        unloadWorld(world);
+    }
+
+    private void unloadWorld(@NotNull World world) {
+        IChunkLoader chunkLoader = ((CraftWorld) world).getHandle().chunkProviderServer.chunkLoader;
+
+        if (Bukkit.unloadWorld(world, false) && chunkLoader instanceof SlimeChunkLoader) {
+            ((SlimeChunkLoader) chunkLoader).close(getPendingSave());
+        }
+    }
+
+    /**
+     * @return The tail of the saves being persisted, completed once every save requested so far is done.
+     */
+    @NotNull
+    private synchronized CompletableFuture<Void> getPendingSave() {
+        return pendingSave;
+    }
+
+    /**
+     * Waits for the saves being persisted, so the data read afterwards is the one they wrote.
+     * A failed save is ignored, its own future already reported it.
+     */
+    private void awaitPendingSave() {
+        try {
+            getPendingSave().join();
+        } catch (CompletionException | CancellationException ignored) {
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> save() {
+        return save(false);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> save(@NotNull CompressionPolicy policy) {
+        return save(false, policy);
+    }
+
+    @Override
+    public @NotNull CompressionPolicy getCompressionPolicy() {
+        return compressionPolicy;
+    }
+
+    @Override
+    public void setCompressionPolicy(@NotNull CompressionPolicy policy) {
+        this.compressionPolicy = policy;
+    }
+
+    @Override
+    public @NotNull CompressionPolicy getArchivalCompressionPolicy() {
+        return archivalCompressionPolicy;
+    }
+
+    @Override
+    public void setArchivalCompressionPolicy(@NotNull CompressionPolicy policy) {
+        this.archivalCompressionPolicy = policy;
+    }
+
+    /**
+     * Same as {@link #save()}, worlds with the journal property append the modified chunks to their journal
+     * unless it grew too large or the save is forced to compact it into a full slime file.
+     * Forced compactions are archival, so they use the archival compression policy.
+     * @param compact If the whole world should be written and the journal emptied.
+     * @return The future completed once the world is persisted.
+     */
+    @NotNull
+    public CompletableFuture<Void> save(boolean compact) {
+        return save(compact, compact ? archivalCompressionPolicy : compressionPolicy);
+    }
+
+    /**
+     * Same as {@link #save(boolean)} with the given compression policy.
+     * @param compact If the whole world should be written and the journal emptied.
+     * @param policy The compression policy of this save only.
+     * @return The future completed once the world is persisted.
+     */
+    @NotNull
+    public CompletableFuture<Void> save(boolean compact, @NotNull CompressionPolicy policy) {
+        SlimeKorld slimeKorld = getKorld();
+        SlimeWorldSnapshot snapshot;
+
+        try {
+            snapshot = SlimeWorldSnapshot.capture(this, slimeKorld.getDataRegistry());
+        } catch (InternalSlimeException e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+
+            future.completeExceptionally(e);
+
+            return future;
+        }
+
+        synchronized (this) {
+            return pendingSave = pendingSave
+                .handle((ignored, throwable) -> null)
+                .thenRunAsync(() -> persist(slimeKorld, snapshot, compact, policy), slimeKorld.getSaveExecutor());
+        }
+    }
+
+    private void persist(SlimeKorld slimeKorld, SlimeWorldSnapshot snapshot, boolean compact, CompressionPolicy policy) {
+        SlimeLoaderStrategy loader = slimeKorld.getLoaderStrategy();
+
+        // Records are in the current revision, a legacy file must stay readable on its own
+        boolean journal = hasProperty(SettingsPropertyFactory.JOURNAL) && !snapshot.isLegacyFormat() && loader.supportsJournal();
+
+        long hash = 0L;
+
+        boolean skipUnchanged = hasProperty(SettingsPropertyFactory.SKIP_UNCHANGED);
+
+        if (skipUnchanged) {
+            try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(ByteStreams.nullOutputStream())) {
+                if (hasProperty(SettingsPropertyFactory.PARALLEL_COMPRESSION)) {
+                    slimeOutputStream.setCompressionPool(slimeKorld.getEncodePool());
+                }
+
+                hash = slimeOutputStream.hash(snapshot);
+            } catch (IOException e) {
+                throw new CompletionException(new InternalSlimeException("Failed to hash world", e));
+            }
+
+            // A compaction is still worth it while the journal holds records
+            boolean pendingJournal = journal && journalReady && journalSize > SlimeJournal.HEADER_SIZE;
+
+            if (hashPersisted && hash == persistedHash && !(compact && pendingJournal)) {
+                EncodedChunkCache chunkCache = snapshot.getChunkCache();
+
+                // The cache may hold bodies of a save that never got persisted, unless a newer snapshot claimed them
+                if (chunkCache != null) {
+                    for (ProtoSlimeChunk chunk : snapshot.getChunks()) {
+                        if (chunk.hasBlocks()) {
+                            chunkCache.invalidate(chunk.getX(), chunk.getZ(), snapshot.getGeneration());
+                        }
+                    }
+                }
+
+                SlimeMetrics.increment(SlimeMetric.SAVES_SKIPPED);
+                return;
+            }
+        }
+
+        hashPersisted = false;
+
+        if (journal && !compact && journalReady && journalSize * 100 < baseSize * getProperty(SettingsPropertyFactory.JOURNAL_COMPACTION_PERCENT)) {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-            try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream, this, slimeKorld.getDataRegistry())) {
-                slimeOutputStream.write();
-            } catch (Exception e) {
-                throw new InternalSlimeException("Failed to save world data", e);
+            try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream)) {
+                slimeOutputStream.setCompressionPolicy(policy);
+                slimeOutputStream.writeJournal(snapshot);
+
+                loader.appendJournal(this, outputStream.toByteArray());
+            } catch (IOException | InternalSlimeException e) {
+                // The tail of the journal may be torn now, only a compaction can be trusted
+                journalReady = false;
+
+                throw new CompletionException(new InternalSlimeException("Failed to append world journal", e));
             }
 
-            byte[] data = outputStream.toByteArray();
+            journalSize += outputStream.size();
+
+            hashPersisted = skipUnchanged;
+            persistedHash = hash;
 
-            slimeKorld.getLoaderStrategy().save(this, data);
+            SlimeMetrics.increment(SlimeMetric.SAVES_PERSISTED);
+            return;
         }
 
-        Bukkit.unloadWorld(world, true);
+        CRC32 checksum = new CRC32();
+        AtomicInteger size = new AtomicInteger();
+
+        try {
+            journalReady = false;
+
+            loader.save(this, out -> {
+                SlimeOutputStream slimeOutputStream = new SlimeOutputStream(new CheckedOutputStream(out, checksum));
+
+                slimeOutputStream.setCompressionPolicy(policy);
+
+                if (hasProperty(SettingsPropertyFactory.PARALLEL_COMPRESSION)) {
+                    slimeOutputStream.setCompressionPool(slimeKorld.getEncodePool());
+                }
+
+                slimeOutputStream.write(snapshot);
+                slimeOutputStream.flush();
+
+                size.set(slimeOutputStream.size());
+            });
+
+            if (journal) {
+                byte[] header = SlimeJournal.createHeader(size.get(), (int) checksum.getValue());
+
+                loader.resetJournal(this, header);
+
+                journalReady = true;
+                journalSize = header.length;
+                baseSize = size.get();
+            }
+
+            hashPersisted = skipUnchanged;
+            persistedHash = hash;
+
+            SlimeMetrics.increment(SlimeMetric.SAVES_PERSISTED);
+        } catch (InternalSlimeException e) {
+            throw new CompletionException(e);
+        }
     }
 
     @Override
@@ -205,21 +461,47 @@ public class BukkitSlimeWorld implements SlimeWorld {
         SlimeLoaderStrategy loader = getKorld()
             .getLoaderStrategy();
 
-        byte[] data = loader.load(name, false);
+        // A save of the previous instance may still be writing the data read below
+        awaitPendingSave();
+
+        ByteBuffer data = loader.loadBuffer(name);
 
         if (data == null) {
             throw new InternalSlimeException("World data not found");
         }
 
+        // Replayed even when the property is off, it may hold the last saves of the world
+        ByteBuffer journal = loader.supportsJournal() ? loader.loadJournal(name) : null;
+
+        SlimeKorld slimeKorld = getKorld();
+
+        SlimeTemplateCache templateCache = hasProperty(SettingsPropertyFactory.TEMPLATE_CACHE) && slimeKorld instanceof BukkitSlimeKorld
+            ? ((BukkitSlimeKorld) slimeKorld).getTemplateCache()
+            : null;
+
+        long contentHash = templateCache != null ? SlimeTemplateCache.hash(data, journal) : 0;
+
+        SlimeTemplate template = templateCache != null ? templateCache.get(name, worldVersion, contentHash) : null;
         ProtoSlimeFile protoSlimeFile;
 
-        try (SlimeInputStream stream = new SlimeInputStream(new ByteArrayInputStream(data))) {
-            protoSlimeFile = stream.transform(worldVersion, getSettings());
-        } catch (Exception e) {
-            throw new InternalSlimeException(e);
+        if (template != null) {
+            protoSlimeFile = template.getFile();
+        } else {
+            try {
+                protoSlimeFile = new SlimeBufferReader(data, slimeKorld.getDictionaryRegistry())
+                    .transform(worldVersion, getSettings(), journal);
+            } catch (InternalSlimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new InternalSlimeException(e);
+            }
+
+            if (templateCache != null) {
+                template = templateCache.put(name, worldVersion, contentHash, protoSlimeFile);
+            }
         }
 
-        SlimeDataManager dataManager = new SlimeDataManager(this, protoSlimeFile);
+        SlimeDataManager dataManager = new SlimeDataManager(this, protoSlimeFile, template);
 
         int dimension = CraftWorld.CUSTOM_DIMENSION_OFFSET + MINECRAFT_SERVER.worlds.size();
 
@@ -246,20 +528,6 @@ public class BukkitSlimeWorld implements SlimeWorld {
 
         craftWorld.generator = new EmptyWorldGenerator();
 
-        if (hasProperty(SettingsPropertyFactory.INITIALIZE_ALL_CHUNKS)) {
-            try {
-                for (long key : protoSlimeFile.getProtoChunks().keys()) {
-                    int x = LongHash.msw(key),
-                        z = LongHash.lsw(key);
-
-                    craftWorld.chunkProviderServer
-                            .getChunkAt(x, z, () -> {});
-                }
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
         SlimeWorldInitializeEvent event = new SlimeWorldInitializeEvent(this, craftWorld.getWorld())
             .call();
 
@@ -270,8 +538,43 @@ public class BukkitSlimeWorld implements SlimeWorld {
         MINECRAFT_SERVER.worlds.add(craftWorld);
         MINECRAFT_SERVER.server.addWorld(craftWorld.getWorld());
 
+        ForkJoinPool decodePool = hasProperty(SettingsPropertyFactory.PARALLEL_CHUNK_DECODE)
+            ? getKorld().getDecodePool()
+            : null;
+
+        if (hasProperty(SettingsPropertyFactory.INITIALIZE_ALL_CHUNKS) && getProperty(SettingsPropertyFactory.WARMUP_TICK_BUDGET) <= 0) {
+            this.warmup = null;
+
+            loadAllChunks(craftWorld, dataManager.getChunkLoader(), protoSlimeFile.getChunkKeys(), decodePool);
+        } else if (hasProperty(SettingsPropertyFactory.INITIALIZE_ALL_CHUNKS)) {
+            Integer[] spawn = getProperty(SettingsPropertyFactory.SPAWN_LOCATION);
+
+            SlimeChunkWarmup warmup = new SlimeChunkWarmup(
+                this,
+                craftWorld,
+                dataManager.getChunkLoader(),
+                protoSlimeFile.getChunkKeys(),
+                spawn[0] >> 4,
+                spawn[2] >> 4,
+                getProperty(SettingsPropertyFactory.WARMUP_TICK_BUDGET),
+                TimeUnit.MILLISECONDS,
+                decodePool,
+                decodePool == null ? 0 : decodePool.getParallelism() * WARMUP_DECODE_AHEAD
+            );
+
+            this.warmup = warmup;
+            warmup.runTaskTimer(getKorld().getHolder(), 1L, 1L);
+        } else {
+            this.warmup = null;
+        }
+
         NBTTagCompound extraData = protoSlimeFile.getExtraData();
 
+        // Shared by every instance of the template, so it's never handed out as is
+        if (template != null) {
+            extraData = (NBTTagCompound) extraData.clone();
+        }
+
         SlimeDataRegistry registry = getKorld()
             .getDataRegistry();
 
@@ -298,4 +601,25 @@ public class BukkitSlimeWorld implements SlimeWorld {
 
         return craftWorld.getWorld();
     }
+
+    /**
+     * Loads every chunk right away, decoded in parallel when there is a pool.
+     * Chunks are wired into NMS on the main thread in key order, so the world is always built the same way.
+     */
+    private void loadAllChunks(@NotNull WorldServer world, @NotNull SlimeChunkLoader loader, long @NotNull [] keys, @Nullable ForkJoinPool decodePool) {
+        Arrays.sort(keys);
+
+        if (decodePool != null) {
+            try {
+                loader.prepareAll(keys, decodePool);
+            } catch (IOException e) {
+                // Every chunk is decoded again once requested, the failing one is reported then
+                getKorld().getLogger().warn("Failed to decode the chunks of " + name + " in parallel", e);
+            }
+        }
+
+        for (long key : keys) {
+            world.chunkProviderServer.getChunkAt(LongHash.msw(key), LongHash.lsw(key));
+        }
+    }
 }
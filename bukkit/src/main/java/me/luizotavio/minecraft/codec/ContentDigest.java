@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import net.minecraft.server.v1_8_R3.NBTCompressedStreamTools;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * CRC32 and Adler32 of the same bytes, together they are wide enough to tell saves and worlds apart.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class ContentDigest {
+
+    private final CRC32 crc = new CRC32();
+    private final Adler32 adler = new Adler32();
+
+    private final byte[] scratch = new byte[4];
+
+    public void update(byte @NotNull [] bytes, int offset, int length) {
+        crc.update(bytes, offset, length);
+        adler.update(bytes, offset, length);
+    }
+
+    /**
+     * @param buffer The bytes to digest, from its position to its limit. The buffer itself is left untouched.
+     */
+    public void update(@NotNull ByteBuffer buffer) {
+        crc.update(buffer.duplicate());
+        adler.update(buffer.duplicate());
+    }
+
+    public void update(int value) {
+        scratch[0] = (byte) (value >>> 24);
+        scratch[1] = (byte) (value >>> 16);
+        scratch[2] = (byte) (value >>> 8);
+        scratch[3] = (byte) value;
+
+        update(scratch, 0, scratch.length);
+    }
+
+    public void update(@NotNull NBTTagCompound compound) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        NBTCompressedStreamTools.a(compound, (DataOutput) new DataOutputStream(outputStream));
+
+        byte[] bytes = outputStream.toByteArray();
+
+        update(bytes.length);
+        update(bytes, 0, bytes.length);
+    }
+
+    public long getValue() {
+        return crc.getValue() << 32 | adler.getValue();
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the encoded chunks of the last saves, so unmodified chunks are spliced into the next one.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class EncodedChunkCache {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Long, EncodedChunk> entries = new LinkedHashMap<Long, EncodedChunk>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, EncodedChunk> eldest) {
+            if (size() <= capacity) {
+                return false;
+            }
+
+            SlimeMetrics.increment(SlimeMetric.ENCODED_CACHE_EVICTIONS);
+
+            forget(eldest.getValue());
+            return true;
+        }
+    };
+
+    private final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+
+    private long memoryUsage;
+    private boolean closed;
+
+    // Incremented for every snapshot, entries remember the last one that claimed them
+    private long generation;
+
+    // Shared section bodies in the order of the last save, so cached frames keep pointing to the same indexes
+    private volatile List<ByteBuffer> sharedOrder = Collections.emptyList();
+
+    /**
+     * @param capacity How many chunks are kept, the least recently used ones are dropped first.
+     */
+    public EncodedChunkCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * Marks a chunk as modified, so the next save encodes it again.
+     * @param x The chunk X.
+     * @param z The chunk Z.
+     */
+    public void markDirty(int x, int z) {
+        dirtyChunks.add(LongHash.toLong(x, z));
+    }
+
+    /**
+     * Starts claiming chunks for a new snapshot, must be called on the main thread before capturing it.
+     * @return The generation of the snapshot, see {@link #invalidate(int, int, long)}.
+     */
+    public synchronized long nextGeneration() {
+        return ++generation;
+    }
+
+    /**
+     * Clears the dirty mark of a chunk, must be called while capturing it.
+     * @param x The chunk X.
+     * @param z The chunk Z.
+     * @return The encoded chunk to reuse, or null if the chunk was modified or isn't cached.
+     */
+    @Nullable
+    public synchronized EncodedChunk claim(int x, int z) {
+        long key = LongHash.toLong(x, z);
+
+        boolean dirty = dirtyChunks.remove(key);
+
+        if (dirty) {
+            return null;
+        }
+
+        EncodedChunk chunk = entries.get(key);
+
+        if (chunk != null) {
+            chunk.claimedGeneration = generation;
+        }
+
+        return chunk;
+    }
+
+    public synchronized void put(int x, int z, @NotNull EncodedChunk chunk) {
+        if (closed) {
+            return;
+        }
+
+        remember(chunk);
+        forget(entries.put(LongHash.toLong(x, z), chunk));
+    }
+
+    /**
+     * Drops the encoded bytes of a chunk, so it's captured again on the next save.
+     * @param x The chunk X.
+     * @param z The chunk Z.
+     */
+    public synchronized void invalidate(int x, int z) {
+        forget(entries.remove(LongHash.toLong(x, z)));
+    }
+
+    /**
+     * Same as {@link #invalidate(int, int)}, unless a newer snapshot claimed the chunk since.
+     * @param generation The generation of the snapshot, see {@link #nextGeneration()}.
+     */
+    public synchronized void invalidate(int x, int z, long generation) {
+        long key = LongHash.toLong(x, z);
+        EncodedChunk chunk = entries.get(key);
+
+        if (chunk != null && chunk.claimedGeneration <= generation) {
+            forget(entries.remove(key));
+        }
+    }
+
+    /**
+     * Drops every entry, saves still running afterwards no longer fill the cache.
+     */
+    public synchronized void close() {
+        closed = true;
+
+        entries.values().forEach(this::forget);
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The estimated bytes held by the entries.
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    private void remember(@NotNull EncodedChunk chunk) {
+        memoryUsage += chunk.getMemoryUsage();
+
+        SlimeMetrics.increment(SlimeMetric.ENCODED_CACHE_ENTRIES);
+        SlimeMetrics.add(SlimeMetric.ENCODED_CACHE_BYTES, chunk.getMemoryUsage());
+    }
+
+    private void forget(@Nullable EncodedChunk chunk) {
+        if (chunk == null) {
+            return;
+        }
+
+        memoryUsage -= chunk.getMemoryUsage();
+
+        SlimeMetrics.add(SlimeMetric.ENCODED_CACHE_ENTRIES, -1);
+        SlimeMetrics.add(SlimeMetric.ENCODED_CACHE_BYTES, -chunk.getMemoryUsage());
+    }
+
+    @NotNull
+    public List<ByteBuffer> getSharedOrder() {
+        return sharedOrder;
+    }
+
+    public void setSharedOrder(@NotNull List<ByteBuffer> sharedOrder) {
+        this.sharedOrder = Collections.unmodifiableList(sharedOrder);
+    }
+
+    /**
+     * A chunk as it was written by a save, the arrays are never modified after creation.
+     */
+    public static final class EncodedChunk {
+
+        private final int[] heightMap;
+        private final byte[] biomeIds;
+
+        private final byte[][] sectionBodies;
+        private final int[] sectionReferences;
+
+        private final int dictionaryId;
+        private final int level;
+        private final int windowLog;
+
+        private final byte[] frame;
+        private final int uncompressedSize;
+
+        private final long memoryUsage;
+
+        // Only touched while holding the cache
+        private long claimedGeneration;
+
+        public EncodedChunk(
+            int @NotNull [] heightMap,
+            byte @NotNull [] biomeIds,
+            byte[][] sectionBodies,
+            int @NotNull [] sectionReferences,
+            int dictionaryId,
+            int level,
+            int windowLog,
+            byte @Nullable [] frame,
+            int uncompressedSize
+        ) {
+            this.heightMap = heightMap;
+            this.biomeIds = biomeIds;
+            this.sectionBodies = sectionBodies;
+            this.sectionReferences = sectionReferences;
+            this.dictionaryId = dictionaryId;
+            this.level = level;
+            this.windowLog = windowLog;
+            this.frame = frame;
+            this.uncompressedSize = uncompressedSize;
+
+            long memoryUsage = heightMap.length * 4L + biomeIds.length + sectionReferences.length * 4L;
+
+            for (byte[] body : sectionBodies) {
+                memoryUsage += body == null ? 0 : body.length;
+            }
+
+            this.memoryUsage = memoryUsage + (frame == null ? 0 : frame.length);
+        }
+
+        /**
+         * The frame can only be spliced when there is one, it was compressed with the same dictionary
+         * at a level and window log at least as high as asked and its sections point to the same shared indexes.
+         * @param dictionaryId The dictionary of the save.
+         * @param level The zstd level the save asks for.
+         * @param windowLog The window log of long distance matching the save asks for, 0 when disabled.
+         * @param sectionReferences The shared index of each section in the save, or -1 when inline.
+         * @return If the frame can be written as is.
+         */
+        public boolean canReuse(int dictionaryId, int level, int windowLog, int @NotNull [] sectionReferences) {
+            return frame != null
+                && this.dictionaryId == dictionaryId
+                && this.level >= level
+                && this.windowLog >= windowLog
+                && Arrays.equals(this.sectionReferences, sectionReferences);
+        }
+
+        public int[] getHeightMap() {
+            return heightMap;
+        }
+
+        public byte[] getBiomeIds() {
+            return biomeIds;
+        }
+
+        /**
+         * @return The encoded body of each section, null when the section is empty.
+         */
+        public byte[][] getSectionBodies() {
+            return sectionBodies;
+        }
+
+        /**
+         * @return The compressed frame, null when the chunk was only written to the journal.
+         */
+        @Nullable
+        public byte[] getFrame() {
+            return frame;
+        }
+
+        public int getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        /**
+         * @return The bytes of the arrays, section bodies shared with other entries are counted for each of them.
+         */
+        public long getMemoryUsage() {
+            return memoryUsage;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs an action for every index of a range, split across a pool when there is one.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class ParallelRange {
+
+    private ParallelRange() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param pool The pool to run on, or null to run on the calling thread.
+     * @param count The size of the range.
+     * @param action The action to run for every index.
+     * @throws IOException If the action fails for any index.
+     */
+    public static void forEach(@Nullable ForkJoinPool pool, int count, @NotNull IndexAction action) throws IOException {
+        if (pool == null) {
+            for (int index = 0; index < count; index++) {
+                action.run(index);
+            }
+
+            return;
+        }
+
+        // Parallel streams split their work inside the pool they were started from
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(index -> {
+                try {
+                    action.run(index);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            })).get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for the pool");
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+
+            while (cause instanceof RuntimeException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface IndexAction {
+
+        void run(int index) throws IOException;
+
+    }
+}
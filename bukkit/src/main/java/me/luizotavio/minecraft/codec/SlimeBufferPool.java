@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of power-of-two sized buffers, used while a file is encoded or decoded.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeBufferPool {
+
+    private static final int MIN_SHIFT = 12, // 4 KiB
+        MAX_SHIFT = 23; // 8 MiB
+
+    private static final int BUFFERS_PER_CLASS = 8;
+
+    private static final ArrayBlockingQueue<ByteBuffer>[] HEAP = createClasses(),
+        DIRECT = createClasses();
+
+    private SlimeBufferPool() {
+        throw new AssertionError();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBlockingQueue<ByteBuffer>[] createClasses() {
+        ArrayBlockingQueue<ByteBuffer>[] classes = new ArrayBlockingQueue[MAX_SHIFT - MIN_SHIFT + 1];
+
+        for (int index = 0; index < classes.length; index++) {
+            classes[index] = new ArrayBlockingQueue<>(BUFFERS_PER_CLASS);
+        }
+
+        return classes;
+    }
+
+    /**
+     * Retrieve a cleared buffer with its limit set to the given size.
+     * @param size The amount of bytes needed.
+     * @param direct If the buffer should be allocated off-heap.
+     * @return The buffer, which should be handed back with {@link #release(ByteBuffer)}.
+     */
+    @NotNull
+    public static ByteBuffer acquire(int size, boolean direct) {
+        int shift = shiftOf(size);
+
+        if (shift > MAX_SHIFT) {
+            SlimeMetrics.increment(SlimeMetric.BUFFER_POOL_MISSES);
+
+            return allocate(size, direct);
+        }
+
+        ByteBuffer buffer = (direct ? DIRECT : HEAP)[shift - MIN_SHIFT].poll();
+
+        if (buffer == null) {
+            SlimeMetrics.increment(SlimeMetric.BUFFER_POOL_MISSES);
+
+            buffer = allocate(1 << shift, direct);
+        } else {
+            SlimeMetrics.increment(SlimeMetric.BUFFER_POOL_HITS);
+        }
+
+        buffer.clear();
+        buffer.limit(size);
+
+        return buffer;
+    }
+
+    /**
+     * Hands a buffer from {@link #acquire(int, boolean)} back to the pool.
+     * It must not be used afterwards.
+     * @param buffer The buffer to release.
+     */
+    public static void release(@NotNull ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+
+        // Not one of ours
+        if (Integer.bitCount(capacity) != 1) {
+            return;
+        }
+
+        int shift = Integer.numberOfTrailingZeros(capacity);
+
+        if (shift < MIN_SHIFT || shift > MAX_SHIFT) {
+            return;
+        }
+
+        (buffer.isDirect() ? DIRECT : HEAP)[shift - MIN_SHIFT].offer(buffer);
+    }
+
+    private static int shiftOf(int size) {
+        if (size <= 1 << MIN_SHIFT) {
+            return MIN_SHIFT;
+        }
+
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    private static ByteBuffer allocate(int size, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+}
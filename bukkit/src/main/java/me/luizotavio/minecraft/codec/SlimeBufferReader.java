@@ -0,0 +1,403 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import com.github.luben.zstd.ZstdException;
+import me.luizotavio.minecraft.common.dictionary.SlimeDictionaryRegistry;
+import me.luizotavio.minecraft.common.exception.InternalSlimeException;
+import me.luizotavio.minecraft.common.settings.SettingsProperty;
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import net.minecraft.server.v1_8_R3.NBTCompressedStreamTools;
+import net.minecraft.server.v1_8_R3.NBTReadLimiter;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import net.minecraft.server.v1_8_R3.NBTTagList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+
+import static me.luizotavio.minecraft.common.version.SlimeVersion.CURRENT_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.DICTIONARY_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.FRAMED_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.LEGACY_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.SHARED_SECTIONS_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.SLIME_MAGIC_HEADER;
+
+/**
+ * Decodes a slime file straight from a {@link ByteBuffer}, heap or direct.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeBufferReader {
+
+    private final ByteBuffer buffer;
+    private final SlimeDictionaryRegistry dictionaryRegistry;
+
+    private int dictionaryId;
+    private byte[] dictionary;
+
+    public SlimeBufferReader(@NotNull ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    public SlimeBufferReader(@NotNull ByteBuffer buffer, @Nullable SlimeDictionaryRegistry dictionaryRegistry) {
+        this.buffer = buffer.duplicate();
+        this.dictionaryRegistry = dictionaryRegistry;
+    }
+
+    public ProtoSlimeFile transform(WorldVersion worldVersion, Set<SettingsProperty<?>> properties) throws IOException, InternalSlimeException {
+        if (!buffer.hasRemaining()) {
+            throw new InternalSlimeException("No data available");
+        }
+
+        try {
+            return read(worldVersion);
+        } catch (BufferUnderflowException exception) {
+            throw new InternalSlimeException("Slime data is truncated", exception);
+        }
+    }
+
+    /**
+     * Same as {@link #transform(WorldVersion, Set)}, then replays the journal of the world over the file.
+     * A journal left behind by an older file is ignored, see {@link SlimeJournal}.
+     * The file is sealed afterwards, see {@link ProtoSlimeFile#seal()}.
+     * @param journal The journal, or null if the world has none.
+     */
+    public ProtoSlimeFile transform(WorldVersion worldVersion, Set<SettingsProperty<?>> properties, @Nullable ByteBuffer journal) throws IOException, InternalSlimeException {
+        ByteBuffer base = buffer.duplicate();
+        ProtoSlimeFile file = transform(worldVersion, properties);
+
+        if (journal != null) {
+            SlimeJournal.replay(journal, base, file);
+        }
+
+        file.seal();
+
+        return file;
+    }
+
+    private ProtoSlimeFile read(WorldVersion worldVersion) throws IOException, InternalSlimeException {
+        if (buffer.remaining() < SLIME_MAGIC_HEADER.length) {
+            throw new InternalSlimeException("Could not read magic header");
+        }
+
+        byte[] magic = new byte[SLIME_MAGIC_HEADER.length];
+
+        buffer.get(magic);
+
+        if (!Arrays.equals(SLIME_MAGIC_HEADER, magic)) {
+            throw new InternalSlimeException("Invalid magic header");
+        }
+
+        // Fix slime version
+        byte slimeVersion = buffer.get();
+
+        if (slimeVersion < LEGACY_SLIME_VERSION || slimeVersion > CURRENT_SLIME_VERSION) {
+            throw new InternalSlimeException("That slime version isn't supported.");
+        }
+
+        byte version = buffer.get();
+
+        if (version == 0) {
+            throw new InternalSlimeException("Invalid version");
+        }
+
+        if (slimeVersion >= DICTIONARY_SLIME_VERSION) {
+            readDictionary();
+        }
+
+        WorldVersion targetVersion = WorldVersion.fromByte(version);
+
+        if (worldVersion != targetVersion) {
+            throw new InternalSlimeException("Cannot convert from " + worldVersion + " to " + targetVersion);
+        }
+
+        int minX = buffer.getShort(),
+            minZ = buffer.getShort();
+
+        // Same order as SlimeOutputStream writes them
+        int width = buffer.getShort(),
+            depth = buffer.getShort();
+
+        if (depth < 0 || width < 0) {
+            throw new InternalSlimeException("Invalid depth or width");
+        }
+
+        byte[] populatedChunks = new byte[(int) Math.ceil((width * depth) / 8.0D)];
+
+        if (buffer.remaining() < populatedChunks.length) {
+            throw new InternalSlimeException("Could not read populated chunks");
+        }
+
+        buffer.get(populatedChunks);
+
+        BitSet bitSet = BitSet.valueOf(populatedChunks);
+
+        ByteBuffer sharedSections = null;
+
+        // Only read while the file is constructed, so it can come from the pool
+        if (slimeVersion >= SHARED_SECTIONS_SLIME_VERSION) {
+            sharedSections = readCompressed(true);
+        }
+
+        try {
+            return readBody(slimeVersion, worldVersion, minX, minZ, width, depth, bitSet, sharedSections);
+        } finally {
+            if (sharedSections != null) {
+                SlimeBufferPool.release(sharedSections);
+            }
+        }
+    }
+
+    private ProtoSlimeFile readBody(
+        byte slimeVersion,
+        WorldVersion worldVersion,
+        int minX,
+        int minZ,
+        int width,
+        int depth,
+        BitSet bitSet,
+        ByteBuffer sharedSections
+    ) throws IOException {
+        ByteBuffer chunkData;
+        int[] compressedSizes = null,
+            uncompressedSizes = null;
+
+        if (slimeVersion >= FRAMED_SLIME_VERSION) {
+            int frames = bitSet.cardinality();
+
+            compressedSizes = new int[frames];
+            uncompressedSizes = new int[frames];
+
+            long framesSize = 0;
+
+            for (int index = 0; index < frames; index++) {
+                compressedSizes[index] = buffer.getInt();
+                uncompressedSizes[index] = buffer.getInt();
+
+                if (compressedSizes[index] < 0 || uncompressedSizes[index] < 0) {
+                    throw new IOException("Invalid chunk frame table");
+                }
+
+                framesSize += compressedSizes[index];
+            }
+
+            if (framesSize > buffer.remaining()) {
+                throw new IOException("Chunk frames are truncated");
+            }
+
+            // Frames stay compressed inside the file buffer until their chunk is requested
+            chunkData = buffer.slice();
+            chunkData.limit((int) framesSize);
+
+            buffer.position(buffer.position() + (int) framesSize);
+        } else {
+            // Chunk data lives as long as the world, so it can't come from the pool
+            chunkData = readCompressed(false);
+        }
+
+        NBTTagList tiles = readCompressedCompound().getList("tiles", 10);
+
+        boolean hasEntities = buffer.get() != 0;
+
+        NBTTagList uncompressedEntities;
+
+        if (hasEntities) {
+            uncompressedEntities = readCompressedCompound().getList("entities", 10);
+        } else {
+            uncompressedEntities = new NBTTagList();
+        }
+
+        NBTTagCompound extraData = readCompressedCompound(),
+            mapData = null;
+
+        boolean isExtra = buffer.hasRemaining();
+
+        if (isExtra) {
+            mapData = readCompressedCompound();
+        } else {
+            mapData = extraData;
+            extraData = new NBTTagCompound();
+        }
+
+        if (compressedSizes != null) {
+            return new ProtoSlimeFile(
+                slimeVersion,
+                worldVersion,
+                width,
+                depth,
+                minX,
+                minZ,
+                bitSet,
+                chunkData,
+                compressedSizes,
+                uncompressedSizes,
+                sharedSections,
+                this::decompressFrame,
+                dictionaryId,
+                tiles,
+                uncompressedEntities,
+                extraData,
+                mapData
+            );
+        }
+
+        return new ProtoSlimeFile(
+            slimeVersion,
+            worldVersion,
+            width,
+            depth,
+            minX,
+            minZ,
+            bitSet,
+            chunkData,
+            tiles,
+            uncompressedEntities,
+            extraData,
+            mapData
+        );
+    }
+
+    private void readDictionary() throws InternalSlimeException {
+        dictionaryId = buffer.getInt();
+
+        if (dictionaryId == 0) {
+            return;
+        }
+
+        dictionary = dictionaryRegistry == null ? null : dictionaryRegistry.getDictionary(dictionaryId);
+
+        if (dictionary == null) {
+            throw new InternalSlimeException("Zstd dictionary " + dictionaryId + " isn't registered");
+        }
+    }
+
+    private ByteBuffer readCompressed(boolean pooled) throws IOException {
+        int compressedSize = buffer.getInt(),
+            uncompressedSize = buffer.getInt();
+
+        if (compressedSize < 0 || uncompressedSize < 0 || compressedSize > buffer.remaining()) {
+            throw new IOException("Could not read compressed data");
+        }
+
+        int position = buffer.position();
+
+        buffer.position(position + compressedSize);
+
+        boolean direct = buffer.isDirect();
+
+        ByteBuffer target;
+
+        if (pooled) {
+            target = SlimeBufferPool.acquire(uncompressedSize, direct);
+        } else {
+            target = direct ? ByteBuffer.allocateDirect(uncompressedSize) : ByteBuffer.allocate(uncompressedSize);
+        }
+
+        try {
+            decompress(buffer, position, compressedSize, target, 0, uncompressedSize);
+
+            return target;
+        } catch (IOException exception) {
+            if (pooled) {
+                SlimeBufferPool.release(target);
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Used by framed files to decompress a chunk only when it's requested, possibly from another thread.
+     */
+    private void decompressFrame(ByteBuffer frame, ByteBuffer target) throws IOException {
+        decompress(frame, frame.position(), frame.remaining(), target, target.position(), target.remaining());
+
+        target.position(target.limit());
+    }
+
+    /**
+     * Decompresses with absolute positions, so it never moves the source nor the target.
+     * Direct sources must be decompressed into direct targets, and heap sources into heap targets.
+     */
+    private void decompress(ByteBuffer source, int position, int compressedSize, ByteBuffer target, int targetPosition, int uncompressedSize) throws IOException {
+        try {
+            int result;
+
+            if (source.isDirect()) {
+                result = ZstdContexts.decompress(dictionaryId, dictionary, context -> context.decompressDirectByteBuffer(target, targetPosition, uncompressedSize, source, position, compressedSize));
+            } else {
+                byte[] array;
+                int offset;
+
+                if (source.hasArray()) {
+                    array = source.array();
+                    offset = source.arrayOffset() + position;
+                } else {
+                    // Read-only heap buffers don't expose their array
+                    array = new byte[compressedSize];
+                    offset = 0;
+
+                    ByteBuffer slice = source.duplicate();
+                    slice.position(position);
+                    slice.get(array);
+                }
+
+                byte[] sourceArray = array;
+                int sourceOffset = offset;
+
+                result = ZstdContexts.decompress(dictionaryId, dictionary, context -> context.decompressByteArray(target.array(), target.arrayOffset() + targetPosition, uncompressedSize, sourceArray, sourceOffset, compressedSize));
+            }
+
+            if (result != uncompressedSize) {
+                throw new IOException("Decompressed " + result + " bytes, expected " + uncompressedSize);
+            }
+        } catch (ZstdException exception) {
+            throw new IOException("Could not decompress data", exception);
+        }
+    }
+
+    private NBTTagCompound readCompressedCompound() throws IOException {
+        ByteBuffer src = readCompressed(true);
+
+        try {
+            return readCompound(src);
+        } finally {
+            SlimeBufferPool.release(src);
+        }
+    }
+
+    private NBTTagCompound readCompound(ByteBuffer src) throws IOException {
+        return NBTCompressedStreamTools.a(new DataInputStream(new ByteBufferInputStream(src)), NBTReadLimiter.a);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import net.minecraft.server.v1_8_R3.NBTCompressedStreamTools;
+import net.minecraft.server.v1_8_R3.NBTReadLimiter;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the modified chunks NMS unloaded, compressed, until the next save.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeChunkStore {
+
+    // Chunks are stored while NMS unloads them, so the fastest level is used
+    private static final int STORE_LEVEL = 1;
+
+    private final TLongObjectHashMap<byte[]> entries = new TLongObjectHashMap<>();
+
+    private long memoryUsage;
+
+    /**
+     * Encodes and compresses a chunk, replacing the one stored before.
+     * @param chunk The chunk, captured with its blocks.
+     * @param withEntities If the entities of the chunk should be stored.
+     * @throws IOException If the chunk can't be encoded or compressed.
+     */
+    public void put(@NotNull ProtoSlimeChunk chunk, boolean withEntities) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream)) {
+            slimeOutputStream.writeChunkEntry(chunk, withEntities);
+        }
+
+        byte[] payload = outputStream.toByteArray();
+        byte[] compressed = new byte[4 + (int) Zstd.compressBound(payload.length)];
+
+        ByteBuffer.wrap(compressed).putInt(payload.length); // Not compressed size
+
+        int size;
+
+        try {
+            size = ZstdContexts.compress(context -> context.setLevel(STORE_LEVEL)
+                .setLong(0)
+                .compressByteArray(compressed, 4, compressed.length - 4, payload, 0, payload.length));
+        } catch (ZstdException exception) {
+            throw new IOException("Could not compress chunk " + chunk.getX() + ", " + chunk.getZ(), exception);
+        }
+
+        byte[] entry = Arrays.copyOf(compressed, 4 + size);
+        byte[] previous = entries.put(LongHash.toLong(chunk.getX(), chunk.getZ()), entry);
+
+        memoryUsage += entry.length - (previous == null ? 0 : previous.length);
+    }
+
+    /**
+     * @param key The chunk key, see {@link LongHash#toLong(int, int)}.
+     * @return The entry that was stored, or null if none.
+     */
+    public byte @Nullable [] remove(long key) {
+        byte[] entry = entries.remove(key);
+
+        if (entry != null) {
+            memoryUsage -= entry.length;
+        }
+
+        return entry;
+    }
+
+    /**
+     * @param key The chunk key, see {@link LongHash#toLong(int, int)}.
+     * @return The entry stored for the chunk, or null if none. It's kept in the store.
+     */
+    public byte @Nullable [] get(long key) {
+        return entries.get(key);
+    }
+
+    public boolean contains(long key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return A copy of every entry, entries themselves are never modified.
+     */
+    @NotNull
+    public TLongObjectHashMap<byte[]> copy() {
+        return new TLongObjectHashMap<>(entries);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The bytes held by the compressed entries.
+     */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Decompresses and decodes a stored entry, it can run on any thread.
+     * @param entry The entry.
+     * @param file The file the world was read from, it decodes the chunk body.
+     * @param withBlocks If the sections, height map and biomes should be decoded, or only the tiles and entities.
+     * @return The chunk.
+     * @throws IOException If the entry can't be decompressed or decoded.
+     */
+    @NotNull
+    public static ProtoSlimeChunk decode(byte @NotNull [] entry, @NotNull ProtoSlimeFile file, boolean withBlocks) throws IOException {
+        int uncompressedSize = ByteBuffer.wrap(entry).getInt();
+
+        byte[] payload = new byte[uncompressedSize];
+
+        try {
+            int result = ZstdContexts.decompress(context -> context.decompressByteArray(payload, 0, uncompressedSize, entry, 4, entry.length - 4));
+
+            if (result != uncompressedSize) {
+                throw new IOException("Decompressed " + result + " bytes, expected " + uncompressedSize);
+            }
+        } catch (ZstdException exception) {
+            throw new IOException("Could not decompress stored chunk", exception);
+        }
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int x = input.readInt(),
+            z = input.readInt();
+
+        byte[] body = new byte[input.readInt()];
+
+        input.readFully(body);
+
+        NBTTagCompound compound = NBTCompressedStreamTools.a(input, NBTReadLimiter.a);
+
+        List<NBTTagCompound> tiles = SlimeJournal.toList(compound.getList("tiles", 10));
+        List<NBTTagCompound> entities = compound.hasKey("entities")
+            ? SlimeJournal.toList(compound.getList("entities", 10))
+            : null;
+
+        if (withBlocks) {
+            return file.decodeChunk(x, z, ByteBuffer.wrap(body), tiles, entities);
+        }
+
+        ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(x, z, null, null, null);
+
+        tiles.forEach(protoChunk::addTileEntity);
+
+        if (entities != null) {
+            entities.forEach(protoChunk::addEntity);
+        }
+
+        return protoChunk;
+    }
+}
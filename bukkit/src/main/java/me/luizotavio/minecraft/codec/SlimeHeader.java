@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Metadata of a slime file read by {@link SlimeProbe}, without any of its payloads.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeHeader {
+
+    private final byte slimeVersion;
+    private final WorldVersion worldVersion;
+    private final int dictionaryId;
+
+    private final int minX, minZ, width, depth;
+    private final BitSet chunks;
+
+    private final List<Block> blocks;
+    private final Map<BlockType, Block> blocksByType = new EnumMap<>(BlockType.class);
+
+    private final List<Block> chunkFrames;
+
+    private final long fileSize;
+
+    public SlimeHeader(
+        byte slimeVersion,
+        @NotNull WorldVersion worldVersion,
+        int dictionaryId,
+        int minX,
+        int minZ,
+        int width,
+        int depth,
+        @NotNull BitSet chunks,
+        @NotNull List<Block> blocks,
+        @Nullable List<Block> chunkFrames,
+        long fileSize
+    ) {
+        this.slimeVersion = slimeVersion;
+        this.worldVersion = worldVersion;
+        this.dictionaryId = dictionaryId;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.width = width;
+        this.depth = depth;
+        this.chunks = chunks;
+        this.blocks = Collections.unmodifiableList(blocks);
+        this.chunkFrames = chunkFrames == null ? null : Collections.unmodifiableList(chunkFrames);
+        this.fileSize = fileSize;
+
+        for (Block block : blocks) {
+            blocksByType.put(block.getType(), block);
+        }
+    }
+
+    public byte getSlimeVersion() {
+        return slimeVersion;
+    }
+
+    public WorldVersion getWorldVersion() {
+        return worldVersion;
+    }
+
+    /**
+     * @return The id of the zstd dictionary the blocks were compressed with, 0 if none.
+     */
+    public int getDictionaryId() {
+        return dictionaryId;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public BitSet getChunks() {
+        return (BitSet) chunks.clone();
+    }
+
+    public int getChunkCount() {
+        return chunks.cardinality();
+    }
+
+    public boolean hasChunk(int x, int z) {
+        int relativeX = x - minX,
+            relativeZ = z - minZ;
+
+        if (relativeX < 0 || relativeZ < 0 || relativeX >= width || relativeZ >= depth) {
+            return false;
+        }
+
+        return chunks.get(relativeZ * width + relativeX);
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    @Nullable
+    public Block getBlock(@NotNull BlockType type) {
+        return blocksByType.get(type);
+    }
+
+    /**
+     * @return True if every chunk is stored as its own frame.
+     */
+    public boolean isFramed() {
+        return chunkFrames != null;
+    }
+
+    /**
+     * @return The frame of every chunk in the order of the chunk bitmap, or an empty list if the file isn't framed.
+     */
+    public List<Block> getChunkFrames() {
+        return chunkFrames == null ? Collections.emptyList() : chunkFrames;
+    }
+
+    /**
+     * Retrieve where a single chunk is stored, enough to fetch it alone from a remote file.
+     * @param x The chunk x.
+     * @param z The chunk z.
+     * @return The frame of the chunk, or null if the file isn't framed or doesn't contain it.
+     */
+    @Nullable
+    public Block getChunkFrame(int x, int z) {
+        if (chunkFrames == null || !hasChunk(x, z)) {
+            return null;
+        }
+
+        int index = (z - minZ) * width + (x - minX);
+
+        return chunkFrames.get(chunks.get(0, index).cardinality());
+    }
+
+    /**
+     * @return The sum of the compressed size of every block.
+     */
+    public long getCompressedSize() {
+        long size = 0;
+
+        for (Block block : blocks) {
+            size += block.getCompressedSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * @return The sum of the uncompressed size of every block, roughly the memory needed to load the world.
+     */
+    public long getUncompressedSize() {
+        long size = 0;
+
+        for (Block block : blocks) {
+            size += block.getUncompressedSize();
+        }
+
+        return size;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    @Override
+    public String toString() {
+        return "SlimeHeader{" +
+            "slimeVersion=" + slimeVersion +
+            ", worldVersion=" + worldVersion +
+            ", dictionaryId=" + dictionaryId +
+            ", minX=" + minX +
+            ", minZ=" + minZ +
+            ", width=" + width +
+            ", depth=" + depth +
+            ", chunks=" + getChunkCount() +
+            ", blocks=" + blocks +
+            ", fileSize=" + fileSize +
+            '}';
+    }
+
+    public enum BlockType {
+        SHARED_SECTIONS,
+        CHUNKS,
+        TILES,
+        ENTITIES,
+        EXTRA,
+        MAPS
+    }
+
+    /**
+     * A compressed block of the file.
+     */
+    public static class Block {
+
+        private final BlockType type;
+        private final long offset;
+        private final int compressedSize, uncompressedSize;
+
+        public Block(@NotNull BlockType type, long offset, int compressedSize, int uncompressedSize) {
+            this.type = type;
+            this.offset = offset;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+        }
+
+        public BlockType getType() {
+            return type;
+        }
+
+        /**
+         * @return Where the compressed data starts inside the file.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getCompressedSize() {
+            return compressedSize;
+        }
+
+        public int getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        @Override
+        public String toString() {
+            return type + "{offset=" + offset + ", compressed=" + compressedSize + ", uncompressed=" + uncompressedSize + '}';
+        }
+    }
+}
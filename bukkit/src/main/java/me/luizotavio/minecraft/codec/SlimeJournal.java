@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import com.github.luben.zstd.ZstdException;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import net.minecraft.server.v1_8_R3.NBTCompressedStreamTools;
+import net.minecraft.server.v1_8_R3.NBTReadLimiter;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import net.minecraft.server.v1_8_R3.NBTTagList;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the chunks modified since the world was last compacted.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeJournal {
+
+    public static final int JOURNAL_MAGIC = 0x534C4A4E;
+    public static final byte JOURNAL_VERSION = 1;
+
+    // Magic, version, slime file length and CRC32
+    public static final int HEADER_SIZE = 4 + 1 + 4 + 4;
+
+    // Compressed size, uncompressed size and CRC32
+    public static final int RECORD_HEADER_SIZE = 4 + 4 + 4;
+
+    private SlimeJournal() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates the header of an empty journal for the given slime file.
+     * @param base The whole slime file.
+     * @return The header.
+     */
+    public static byte @NotNull [] createHeader(@NotNull ByteBuffer base) {
+        return createHeader(base.remaining(), checksum(base));
+    }
+
+    /**
+     * Creates the header of an empty journal for a slime file that was streamed.
+     * @param length The length of the slime file.
+     * @param checksum The CRC32 of the slime file.
+     * @return The header.
+     */
+    public static byte @NotNull [] createHeader(int length, int checksum) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(JOURNAL_MAGIC);
+        header.put(JOURNAL_VERSION);
+        header.putInt(length);
+        header.putInt(checksum);
+
+        return header.array();
+    }
+
+    /**
+     * @param journal The journal.
+     * @param base The whole slime file.
+     * @return If the journal was started from this slime file.
+     */
+    public static boolean matches(@NotNull ByteBuffer journal, @NotNull ByteBuffer base) {
+        if (journal.remaining() < HEADER_SIZE) {
+            return false;
+        }
+
+        ByteBuffer header = journal.duplicate();
+
+        return header.getInt() == JOURNAL_MAGIC
+            && header.get() == JOURNAL_VERSION
+            && header.getInt() == base.remaining()
+            && header.getInt() == checksum(base);
+    }
+
+    /**
+     * Replays every intact record of the journal over the file, in the order they were appended.
+     * @param journal The journal.
+     * @param base The whole slime file the file was read from.
+     * @param file The file to replay over.
+     * @return The amount of records replayed, 0 if the journal doesn't belong to this slime file.
+     * @throws IOException If an intact record can't be decoded.
+     */
+    public static int replay(@NotNull ByteBuffer journal, @NotNull ByteBuffer base, @NotNull ProtoSlimeFile file) throws IOException {
+        if (!matches(journal, base)) {
+            return 0;
+        }
+
+        ByteBuffer input = journal.duplicate();
+
+        input.position(input.position() + HEADER_SIZE);
+
+        int records = 0;
+
+        while (input.remaining() >= RECORD_HEADER_SIZE) {
+            int compressedSize = input.getInt(),
+                uncompressedSize = input.getInt(),
+                checksum = input.getInt();
+
+            if (compressedSize < 0 || uncompressedSize < 0 || compressedSize > input.remaining()) {
+                break;
+            }
+
+            byte[] compressed = new byte[compressedSize];
+
+            input.get(compressed);
+
+            if (checksum(compressed, 0, compressedSize) != checksum) {
+                break;
+            }
+
+            byte[] payload = new byte[uncompressedSize];
+
+            try {
+                int result = ZstdContexts.decompress(context -> context.decompressByteArray(payload, 0, uncompressedSize, compressed, 0, compressedSize));
+
+                if (result != uncompressedSize) {
+                    throw new IOException("Decompressed " + result + " bytes, expected " + uncompressedSize);
+                }
+            } catch (ZstdException exception) {
+                throw new IOException("Could not decompress journal record", exception);
+            }
+
+            apply(payload, file);
+
+            records++;
+        }
+
+        return records;
+    }
+
+    private static void apply(byte[] payload, ProtoSlimeFile file) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int count = input.readInt();
+
+        for (int index = 0; index < count; index++) {
+            int x = input.readInt(),
+                z = input.readInt();
+
+            byte[] body = new byte[input.readInt()];
+
+            input.readFully(body);
+
+            NBTTagCompound compound = NBTCompressedStreamTools.a(input, NBTReadLimiter.a);
+
+            List<NBTTagCompound> entities = compound.hasKey("entities")
+                ? toList(compound.getList("entities", 10))
+                : null;
+
+            file.replaceChunk(x, z, ByteBuffer.wrap(body), toList(compound.getList("tiles", 10)), entities);
+        }
+
+        NBTTagCompound worldCompound = NBTCompressedStreamTools.a(input, NBTReadLimiter.a);
+
+        file.replaceWorldData(worldCompound.getCompound("extra"), worldCompound.getCompound("maps"));
+    }
+
+    static List<NBTTagCompound> toList(NBTTagList list) {
+        List<NBTTagCompound> compounds = new ArrayList<>(list.size());
+
+        for (int index = 0; index < list.size(); index++) {
+            compounds.add(list.get(index));
+        }
+
+        return compounds;
+    }
+
+    public static int checksum(byte @NotNull [] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+
+        crc.update(bytes, offset, length);
+
+        return (int) crc.getValue();
+    }
+
+    public static int checksum(@NotNull ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+
+        crc.update(buffer.duplicate());
+
+        return (int) crc.getValue();
+    }
+}
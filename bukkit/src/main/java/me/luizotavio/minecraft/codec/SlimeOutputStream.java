@@ -25,30 +25,38 @@
 package me.luizotavio.minecraft.codec;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
-import de.tr7zw.nbtapi.NBTContainer;
+import me.luizotavio.minecraft.codec.EncodedChunkCache.EncodedChunk;
 import me.luizotavio.minecraft.common.SlimeWorld;
-import me.luizotavio.minecraft.common.data.AbstractSlimeData;
+import me.luizotavio.minecraft.common.compression.CompressionPolicy;
+import me.luizotavio.minecraft.common.compression.SlimeBlock;
 import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
 import me.luizotavio.minecraft.common.exception.InternalSlimeException;
-import me.luizotavio.minecraft.common.settings.factory.SettingsPropertyFactory;
-import me.luizotavio.minecraft.common.util.Pair;
 import me.luizotavio.minecraft.common.version.WorldVersion;
-import me.luizotavio.minecraft.data.container.BukkitSlimePersistentContainer;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
 import net.minecraft.server.v1_8_R3.*;
-import org.bukkit.World;
-import org.bukkit.craftbukkit.v1_8_R3.CraftWorld;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Collection;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static me.luizotavio.minecraft.common.version.SlimeVersion.CURRENT_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.LEGACY_SLIME_VERSION;
 import static me.luizotavio.minecraft.common.version.SlimeVersion.SLIME_MAGIC_HEADER;
 
 /**
@@ -66,9 +74,35 @@ public class SlimeOutputStream extends DataOutputStream {
     public static final int HEIGHTMAP_SIZE = 256;
     public static final int BIOME_SIZE = 256;
 
+    // Storage byte and index of a back-reference, shorter sections are always written inline
+    private static final int SHARED_REFERENCE_SIZE = 5;
+
+    // Largest grid cells per chunk still ordered through a flat grid instead of sorting
+    private static final int GRID_DENSITY = 4;
+
     private final SlimeWorld slimeWorld;
     private final SlimeDataRegistry dataRegistry;
 
+    // Codecs keep scratch arrays, so each thread encoding sections needs its own
+    private static final ThreadLocal<SlimeSectionCodec> SECTION_CODECS = ThreadLocal.withInitial(SlimeSectionCodec::new);
+
+    // Height map, biomes, section bitmap, then every section inline with its storage byte
+    private static final int MAX_FRAME_SIZE = HEIGHTMAP_SIZE * 4 + BIOME_SIZE + SECTION_PER_CHUNK / 8
+        + SECTION_PER_CHUNK * (1 + SlimeSectionCodec.MAX_SECTION_SIZE);
+
+    private static final ThreadLocal<ByteBuffer> SECTION_BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE));
+    private static final ThreadLocal<ByteBuffer> FRAME_BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAX_FRAME_SIZE));
+
+    private int dictionaryId;
+    private byte[] dictionary;
+
+    private boolean trimEmpty;
+    private boolean sharedSections = true;
+
+    private ForkJoinPool compressionPool;
+
+    private CompressionPolicy compressionPolicy = CompressionPolicy.DEFAULT;
+
     /**
      * Creates a new data output stream to write data to the specified
      * underlying output stream. The counter <code>written</code> is
@@ -84,49 +118,101 @@ public class SlimeOutputStream extends DataOutputStream {
         this.dataRegistry = dataRegistry;
     }
 
+    /**
+     * Creates a stream that is only able to write snapshots.
+     *
+     * @param out the underlying output stream.
+     */
+    public SlimeOutputStream(@NotNull OutputStream out) {
+        super(out);
+        this.slimeWorld = null;
+        this.dataRegistry = null;
+    }
+
+    /**
+     * Encodes and compresses chunks in parallel inside the given pool, while the remaining blocks
+     * are built and compressed next to them. Everything is still written in the order of the format.
+     * @param compressionPool The pool, or null to encode everything on the calling thread.
+     */
+    public void setCompressionPool(@Nullable ForkJoinPool compressionPool) {
+        this.compressionPool = compressionPool;
+    }
+
+    /**
+     * @param compressionPolicy The policy picking the zstd level of every block written by this stream.
+     */
+    public void setCompressionPolicy(@NotNull CompressionPolicy compressionPolicy) {
+        this.compressionPolicy = compressionPolicy;
+    }
+
+    /**
+     * Captures the world and encodes it right away.
+     * Use {@link SlimeWorldSnapshot#capture(SlimeWorld, SlimeDataRegistry)} and {@link #write(SlimeWorldSnapshot)}
+     * to only capture on the main thread and encode somewhere else.
+     */
     public void write() throws IOException, InternalSlimeException {
+        if (slimeWorld == null) {
+            throw new InternalSlimeException("No world to capture, write a snapshot instead");
+        }
+
+        write(SlimeWorldSnapshot.capture(slimeWorld, dataRegistry));
+    }
+
+    /**
+     * Encodes a snapshot, it never touches the world so it can run on any thread.
+     * Snapshots of the legacy revision are written without dictionary, frames, palettes nor shared sections.
+     * @param snapshot The snapshot.
+     * @throws IOException If the snapshot can't be compressed or written.
+     */
+    public void write(@NotNull SlimeWorldSnapshot snapshot) throws IOException {
+        snapshot.resolve();
+
+        boolean legacyFormat = snapshot.isLegacyFormat();
+
         write(SLIME_MAGIC_HEADER);
-        write(CURRENT_SLIME_VERSION);
+        write(legacyFormat ? LEGACY_SLIME_VERSION : CURRENT_SLIME_VERSION);
 
-        byte version = slimeWorld.getVersion()
+        byte version = snapshot.getWorldVersion()
             .getByteVersion();
 
         write(version);
 
-        World world = slimeWorld.getBukkitWorld();
+        dictionaryId = snapshot.getDictionaryId();
+        dictionary = snapshot.getDictionary();
 
-        if (world == null) {
-            throw new InternalSlimeException("World is null", null);
+        if (!legacyFormat) {
+            writeInt(dictionaryId);
         }
 
-        net.minecraft.server.v1_8_R3.WorldServer nmsWorld = ((CraftWorld) world).getHandle();
+        trimEmpty = snapshot.isTrimEmpty();
+        sharedSections = snapshot.isSharedSections();
+
+        EncodedChunkCache chunkCache = snapshot.getChunkCache();
+
+        List<ProtoSlimeChunk> captured = snapshot.getChunks();
+        ProtoSlimeChunk[] kept = new ProtoSlimeChunk[captured.size()];
 
-        // Fill all chunks and ordered by chunk X and Z. -- Took idea from SlimeWorldManager;
-        List<Chunk> chunks = nmsWorld.chunkProviderServer.chunks
-            .values()
-            .stream()
-            .sorted(Comparator.comparingLong(chunk -> (long) chunk.locZ * Integer.MAX_VALUE + chunk.locX))
-            .collect(Collectors.toList());
+        int count = 0;
 
-        int minX = chunks.parallelStream()
-            .mapToInt(chunk -> chunk.locX)
-            .min()
-            .orElse(0);
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE,
+            maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (ProtoSlimeChunk chunk : captured) {
+            if (trimEmpty && isEmpty(chunk, snapshot)) {
+                continue;
+            }
 
-        int minZ = chunks.parallelStream()
-            .mapToInt(chunk -> chunk.locZ)
-            .min()
-            .orElse(0);
+            kept[count++] = chunk;
 
-        int maxX = chunks.parallelStream()
-            .mapToInt(chunk -> chunk.locX)
-            .max()
-            .orElse(0);
+            minX = Math.min(minX, chunk.getX());
+            minZ = Math.min(minZ, chunk.getZ());
+            maxX = Math.max(maxX, chunk.getX());
+            maxZ = Math.max(maxZ, chunk.getZ());
+        }
 
-        int maxZ = chunks.parallelStream()
-            .mapToInt(chunk -> chunk.locZ)
-            .max()
-            .orElse(0);
+        if (count == 0) {
+            minX = minZ = maxX = maxZ = 0;
+        }
 
         writeShort(minX); // - minX of where the chunks start
         writeShort(minZ); // - minZ of where the chunks start
@@ -141,236 +227,846 @@ public class SlimeOutputStream extends DataOutputStream {
         // Make a bit set to know which chunks are loaded
         BitSet bitSet = new BitSet(width * depth);
 
-        for (Chunk chunk : chunks) {
-            bitSet.set((chunk.locZ - minZ) * width + (chunk.locX - minX), true);
-        }
+        // Ordered by chunk Z and X, the same order as the bitmap. -- Took idea from SlimeWorldManager;
+        List<ProtoSlimeChunk> chunks = Arrays.asList(order(kept, count, minX, minZ, width, depth, bitSet));
 
         int chunkSize = (int) Math.ceil((width * depth) / 8.0D);
 
         fromBitSet(this, bitSet, chunkSize);
 
-        // Ensure version instead of writing each chunk
-        ensureVersion(slimeWorld);
+        ForkJoinTask<byte[]> tileBlock = fork(() -> {
+            NBTTagList nbtTagList = new NBTTagList();
 
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+            for (ProtoSlimeChunk chunk : chunks) {
+                chunk.getTileEntities()
+                    .forEach(nbtTagList::add);
+            }
 
-        try (DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream)) {
-            for (Chunk chunk : chunks) {
-                int[] heightMap = chunk.heightMap;
+            NBTTagCompound tileCompound = new NBTTagCompound();
+            tileCompound.set("tiles", nbtTagList);
 
-                for (int index = 0; index < HEIGHTMAP_SIZE; index++) {
-                    dataOutputStream.writeInt(heightMap[index]);
-                }
+            return compressCompound(tileCompound, SlimeBlock.TILE_ENTITIES);
+        });
+
+        ForkJoinTask<byte[]> entityBlock = null;
 
-                dataOutputStream.write(chunk.getBiomeIndex());
-                ChunkSection[] chunkSections = chunk.getSections();
-                BitSet sectionSet = new BitSet(SECTION_PER_CHUNK);
+        if (snapshot.hasEntities()) {
+            entityBlock = fork(() -> {
+                NBTTagList entityTagList = new NBTTagList();
 
-                for (int index = 0; index < SECTION_PER_CHUNK; index++) {
-                    sectionSet.set(index, index < chunkSections.length && chunkSections[index] != null);
+                for (ProtoSlimeChunk chunk : chunks) {
+                    chunk.getEntities()
+                        .forEach(entityTagList::add);
                 }
 
-                fromBitSet(dataOutputStream, sectionSet, 2);
+                NBTTagCompound entityCompound = new NBTTagCompound();
+                entityCompound.set("entities", entityTagList);
+
+                return compressCompound(entityCompound, SlimeBlock.ENTITIES);
+            });
+        }
+
+        ForkJoinTask<byte[]> extraBlock = fork(() -> compressCompound(snapshot.getExtraData(), SlimeBlock.EXTRA_DATA));
+        ForkJoinTask<byte[]> mapBlock = fork(() -> compressCompound(snapshot.getMapData(), SlimeBlock.MAP_DATA));
 
-                for (ChunkSection chunkSection : chunkSections) {
-                    if (chunkSection == null) {
-                        continue;
+        try {
+            if (legacyFormat) {
+                writeLegacyChunks(chunks);
+            } else {
+                writeChunks(chunks, snapshot);
+            }
+        } catch (IOException | RuntimeException exception) {
+            // Chunks captured for this save would otherwise be spliced from an older save next time
+            if (chunkCache != null) {
+                for (ProtoSlimeChunk chunk : chunks) {
+                    if (chunk.hasBlocks()) {
+                        chunkCache.invalidate(chunk.getX(), chunk.getZ());
                     }
+                }
+            }
 
-                    byte[] blockLight = chunkSection.getEmittedLightArray()
-                        .a();
+            throw exception;
+        }
 
-                    dataOutputStream.writeBoolean(blockLight != null && blockLight.length == NIBBLE_ARRAY_SIZE);
+        // Write tile entities
+        write(join(tileBlock));
 
-                    if (blockLight != null) {
-                        dataOutputStream.write(blockLight);
-                    }
+        // Fix the boolean of has entities
+        if (entityBlock != null) {
+            writeBoolean(true);
 
-                    Pair<byte[], NibbleArray> blockData = getBlocksId(chunkSection);
+            // Write entities
+            write(join(entityBlock));
+        } else {
+            writeBoolean(false);
+        }
 
-                    dataOutputStream.write(blockData.getKey());
-                    dataOutputStream.write(blockData.getValue().a());
+        // Write extra data
+        write(join(extraBlock));
 
-                    byte[] skyLight = chunkSection.getSkyLightArray()
-                        .a();
+        // Write map data
+        write(join(mapBlock));
+    }
 
-                    dataOutputStream.writeBoolean(skyLight != null && skyLight.length == NIBBLE_ARRAY_SIZE);
+    private void writeChunks(@NotNull List<ProtoSlimeChunk> chunks, @NotNull SlimeWorldSnapshot snapshot) throws IOException {
+        EncodedChunkCache chunkCache = snapshot.getChunkCache();
 
-                    if (skyLight != null) {
-                        dataOutputStream.write(skyLight);
+        // Sections are encoded once, so identical ones can be shared by back-references
+        byte[][][] sectionBodies = new byte[chunks.size()][][];
+        EncodedChunk[] cachedChunks = new EncodedChunk[chunks.size()];
+
+        forEachChunk(chunks.size(), index -> {
+            ProtoSlimeChunk chunk = chunks.get(index);
+
+            if (chunk.hasBlocks()) {
+                sectionBodies[index] = encodeSections(chunk);
+                return;
+            }
+
+            cachedChunks[index] = snapshot.getClaimedChunk(chunk.getX(), chunk.getZ());
+
+            if (cachedChunks[index] == null) {
+                throw new IOException("Chunk " + chunk.getX() + ", " + chunk.getZ() + " wasn't captured nor cached");
+            }
+
+            sectionBodies[index] = cachedChunks[index].getSectionBodies();
+        });
+
+        Map<ByteBuffer, Integer> occurrences = new HashMap<>();
+
+        // Left empty, so every section is written inline
+        if (sharedSections) {
+            for (byte[][] bodies : sectionBodies) {
+                for (byte[] body : bodies) {
+                    if (body != null) {
+                        occurrences.merge(ByteBuffer.wrap(body), 1, Integer::sum);
                     }
                 }
             }
         }
 
-        byte[] bytes = byteArrayOutputStream.toByteArray(),
-            compressed = Zstd.compress(bytes);
+        List<ByteBuffer> sharedOrder = new ArrayList<>();
+        Map<ByteBuffer, Integer> sharedIndexes = new HashMap<>();
 
-        writeInt(compressed.length); // Compressed size
-        writeInt(bytes.length); // Not compressed size
+        // Bodies shared by the previous save keep their indexes, so its cached frames stay valid
+        if (chunkCache != null) {
+            for (ByteBuffer key : chunkCache.getSharedOrder()) {
+                if (isShared(key, occurrences)) {
+                    sharedIndexes.put(key, sharedOrder.size());
+                    sharedOrder.add(key);
+                }
+            }
+        }
 
-        write(compressed);
+        for (byte[][] bodies : sectionBodies) {
+            for (byte[] body : bodies) {
+                if (body == null) {
+                    continue;
+                }
 
-        // Write tile entities
-        NBTTagList nbtTagList = new NBTTagList();
+                ByteBuffer key = ByteBuffer.wrap(body);
 
-        for (Chunk chunk : chunks) {
-            Collection<TileEntity> tileEntities = chunk.tileEntities
-                .values();
+                if (isShared(key, occurrences) && !sharedIndexes.containsKey(key)) {
+                    sharedIndexes.put(key, sharedOrder.size());
+                    sharedOrder.add(key);
+                }
+            }
+        }
 
-            for (TileEntity tileEntity : tileEntities) {
-                NBTTagCompound compound = new NBTTagCompound();
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
 
-                tileEntity.b(compound);
+        dataOutputStream.writeInt(sharedOrder.size());
 
-                nbtTagList.add(compound);
+        for (ByteBuffer key : sharedOrder) {
+            dataOutputStream.write(key.array());
+        }
+
+        writeCompressed(byteArrayOutputStream.toByteArray(), SlimeBlock.SHARED_SECTIONS);
+
+        int[] uncompressedSizes = new int[chunks.size()];
+        byte[][] frames = new byte[chunks.size()][];
+
+        forEachChunk(chunks.size(), index -> {
+            ProtoSlimeChunk chunk = chunks.get(index);
+            EncodedChunk cached = cachedChunks[index];
+
+            int[] references = new int[SECTION_PER_CHUNK];
+
+            for (int sectionIndex = 0; sectionIndex < SECTION_PER_CHUNK; sectionIndex++) {
+                byte[] body = sectionBodies[index][sectionIndex];
+                Integer sharedIndex = body == null ? null : sharedIndexes.get(ByteBuffer.wrap(body));
+
+                references[sectionIndex] = sharedIndex == null ? -1 : sharedIndex;
+            }
+
+            int[] heightMap = cached != null ? cached.getHeightMap() : chunk.getHeightMap();
+            byte[] biomeIds = cached != null ? cached.getBiomeIds() : chunk.getBiomeIds();
+
+            int cachedSize = cached == null ? 0 : cached.getUncompressedSize();
+
+            if (cached != null && cached.canReuse(
+                dictionaryId,
+                compressionPolicy.level(SlimeBlock.CHUNK, cachedSize),
+                compressionPolicy.windowLog(SlimeBlock.CHUNK, cachedSize),
+                references
+            )) {
+                frames[index] = cached.getFrame();
+                uncompressedSizes[index] = cached.getUncompressedSize();
+                return;
             }
+
+            ByteBuffer chunkData = writeChunk(heightMap, biomeIds, sectionBodies[index], references);
+
+            int level = compressionPolicy.level(SlimeBlock.CHUNK, chunkData.remaining()),
+                windowLog = compressionPolicy.windowLog(SlimeBlock.CHUNK, chunkData.remaining());
+
+            uncompressedSizes[index] = chunkData.remaining();
+            frames[index] = compress(chunkData.array(), chunkData.arrayOffset(), chunkData.remaining(), SlimeBlock.CHUNK);
+
+            if (chunkCache != null) {
+                chunkCache.put(chunk.getX(), chunk.getZ(), new EncodedChunk(
+                    heightMap,
+                    biomeIds,
+                    sectionBodies[index],
+                    references,
+                    dictionaryId,
+                    level,
+                    windowLog,
+                    frames[index],
+                    uncompressedSizes[index]
+                ));
+            }
+        });
+
+        if (chunkCache != null) {
+            chunkCache.setSharedOrder(sharedOrder);
         }
 
-        NBTTagCompound tileCompound = new NBTTagCompound();
-        tileCompound.set("tiles", nbtTagList);
+        for (int index = 0; index < frames.length; index++) {
+            writeInt(frames[index].length); // Compressed size
+            writeInt(uncompressedSizes[index]); // Not compressed size
+        }
 
-        ByteArrayDataOutput tileByteArrayOutputStream = ByteStreams.newDataOutput();
-        // Write tile entities
-        writeCompound(tileByteArrayOutputStream, tileCompound);
+        for (byte[] frame : frames) {
+            write(frame);
+        }
+    }
 
-        byte[] tileBytes = tileByteArrayOutputStream.toByteArray(),
-            tileCompressed = Zstd.compress(tileBytes);
+    /**
+     * Writes every chunk inside a single compressed block, like the legacy revision does.
+     */
+    private void writeLegacyChunks(@NotNull List<ProtoSlimeChunk> chunks) throws IOException {
+        byte[][] bodies = new byte[chunks.size()][];
 
-        writeInt(tileCompressed.length); // Compressed size
-        writeInt(tileBytes.length); // Not compressed size
+        forEachChunk(chunks.size(), index -> bodies[index] = writeLegacyChunk(chunks.get(index)));
 
-        write(tileCompressed);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+
+        for (byte[] body : bodies) {
+            byteArrayOutputStream.write(body);
+        }
+
+        writeCompressed(byteArrayOutputStream.toByteArray(), SlimeBlock.CHUNK);
+    }
+
+    /**
+     * Encodes a chunk of the legacy revision, its sections hold raw ids and data nibbles and light is never collapsed.
+     */
+    private byte[] writeLegacyChunk(@NotNull ProtoSlimeChunk chunk) throws IOException {
+        if (!chunk.hasBlocks()) {
+            throw new IOException("Chunk " + chunk.getX() + ", " + chunk.getZ() + " wasn't captured with its blocks");
+        }
+
+        ByteBuffer out = FRAME_BUFFERS.get();
+
+        out.clear();
+
+        out.asIntBuffer()
+            .put(chunk.getHeightMap(), 0, HEIGHTMAP_SIZE);
+
+        out.position(HEIGHTMAP_SIZE * 4);
+        out.put(chunk.getBiomeIds(), 0, BIOME_SIZE);
+
+        ProtoSlimeSection[] chunkSections = chunk.getSections();
+        int populated = 0;
+
+        for (int index = 0; index < SECTION_PER_CHUNK && index < chunkSections.length; index++) {
+            ProtoSlimeSection section = chunkSections[index];
+
+            if (section != null && !(trimEmpty && isAir(section))) {
+                populated |= 1 << index;
+            }
+        }
+
+        out.put((byte) populated);
+        out.put((byte) (populated >> 8));
+
+        SlimeSectionCodec codec = SECTION_CODECS.get();
+
+        for (int index = 0; index < SECTION_PER_CHUNK; index++) {
+            if ((populated & 1 << index) == 0) {
+                continue;
+            }
+
+            ProtoSlimeSection section = chunkSections[index];
+
+            SlimeSectionCodec.writeLight(out, section.getBlockLight(), false);
+            codec.writeLegacy(out, section.getBlockIds());
+            SlimeSectionCodec.writeLight(out, section.getSkyLight(), false);
+        }
+
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Digests the uncompressed content of a snapshot, nothing is compressed nor written.
+     * Snapshots with the same digest write the same data, so a save matching the last persisted one can be skipped.
+     * Sections encoded here are kept in the chunks, writing the snapshot afterwards doesn't encode them again.
+     * @param snapshot The snapshot.
+     * @return The digest.
+     * @throws IOException If a chunk wasn't captured nor cached.
+     */
+    public long hash(@NotNull SlimeWorldSnapshot snapshot) throws IOException {
+        snapshot.resolve();
+
+        trimEmpty = snapshot.isTrimEmpty();
+        sharedSections = snapshot.isSharedSections();
+
+        List<ProtoSlimeChunk> chunks = snapshot.getChunks();
+
+        long[] digests = new long[chunks.size()];
+
+        forEachChunk(chunks.size(), index -> {
+            ProtoSlimeChunk chunk = chunks.get(index);
+
+            int[] heightMap;
+            byte[] biomeIds;
+            byte[][] bodies;
+
+            if (chunk.hasBlocks()) {
+                heightMap = chunk.getHeightMap();
+                biomeIds = chunk.getBiomeIds();
+                bodies = encodeSections(chunk);
+            } else {
+                EncodedChunk cached = snapshot.getClaimedChunk(chunk.getX(), chunk.getZ());
+
+                if (cached == null) {
+                    throw new IOException("Chunk " + chunk.getX() + ", " + chunk.getZ() + " wasn't captured nor cached");
+                }
+
+                heightMap = cached.getHeightMap();
+                biomeIds = cached.getBiomeIds();
+                bodies = cached.getSectionBodies();
+            }
+
+            ContentDigest digest = new ContentDigest();
+
+            ByteBuffer buffer = ByteBuffer.allocate(8 + heightMap.length * 4);
+
+            buffer.putInt(chunk.getX());
+            buffer.putInt(chunk.getZ());
+            buffer.asIntBuffer().put(heightMap);
+
+            digest.update(buffer.array(), 0, buffer.capacity());
+            digest.update(biomeIds, 0, biomeIds.length);
+
+            for (byte[] body : bodies) {
+                // Length first, so an empty section never digests like the bytes of the next one
+                digest.update(body == null ? -1 : body.length);
+
+                if (body != null) {
+                    digest.update(body, 0, body.length);
+                }
+            }
+
+            NBTTagList tileTagList = new NBTTagList();
+            chunk.getTileEntities().forEach(tileTagList::add);
 
-        // Fix the boolean of has entities
-        if (slimeWorld.hasProperty(SettingsPropertyFactory.HAS_ENTITIES)) {
-            writeBoolean(true);
             NBTTagList entityTagList = new NBTTagList();
+            chunk.getEntities().forEach(entityTagList::add);
 
-            for (Chunk chunk : chunks) {
-                for (List<Entity> entitySlice : chunk.getEntitySlices()) {
-                    for (Entity entity : entitySlice) {
-                        NBTTagCompound compound = new NBTTagCompound();
+            NBTTagCompound chunkCompound = new NBTTagCompound();
 
-                        entity.e(compound);
+            chunkCompound.set("tiles", tileTagList);
+            chunkCompound.set("entities", entityTagList);
 
-                        entityTagList.add(compound);
-                    }
+            digest.update(chunkCompound);
+
+            digests[index] = mix(digest.getValue());
+        });
+
+        ContentDigest digest = new ContentDigest();
+
+        digest.update(snapshot.getWorldVersion().getByteVersion());
+        digest.update(snapshot.getDictionaryId());
+        digest.update(snapshot.hasEntities() ? 1 : 0);
+        digest.update(trimEmpty ? 1 : 0);
+        digest.update(sharedSections ? 1 : 0);
+        digest.update(snapshot.isLegacyFormat() ? 1 : 0);
+        digest.update(chunks.size());
+
+        digest.update(snapshot.getExtraData());
+        digest.update(snapshot.getMapData());
+
+        // Summed, so the digest doesn't depend on the order the chunks were captured in
+        long hash = mix(digest.getValue());
+
+        for (long chunkDigest : digests) {
+            hash += chunkDigest;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Encodes the chunks captured with their blocks as a single journal record, see {@link SlimeJournal}.
+     * Unlike {@link #write(SlimeWorldSnapshot)} nothing is shared between chunks,
+     * so the record can be replayed over any older file.
+     * @param snapshot The snapshot.
+     * @throws IOException If the record can't be compressed or written.
+     */
+    public void writeJournal(@NotNull SlimeWorldSnapshot snapshot) throws IOException {
+        snapshot.resolve();
+
+        // Journals never use a dictionary, so they can be replayed on their own
+        dictionaryId = 0;
+        dictionary = null;
+
+        // Chunks that became empty are still recorded, only their air sections are left out
+        trimEmpty = snapshot.isTrimEmpty();
+        sharedSections = snapshot.isSharedSections();
+
+        EncodedChunkCache chunkCache = snapshot.getChunkCache();
+        List<ProtoSlimeChunk> chunks = new ArrayList<>();
+
+        for (ProtoSlimeChunk chunk : snapshot.getChunks()) {
+            if (chunk.hasBlocks()) {
+                chunks.add(chunk);
+            }
+        }
+
+        ByteArrayOutputStream payloadOutputStream = new ByteArrayOutputStream(CHUNK_SIZE);
+        DataOutputStream payloadOutput = new DataOutputStream(payloadOutputStream);
+
+        payloadOutput.writeInt(chunks.size());
+
+        try {
+            for (ProtoSlimeChunk chunk : chunks) {
+                byte[][] bodies = writeChunkEntry(payloadOutput, chunk, snapshot.hasEntities());
+
+                int[] references = new int[SECTION_PER_CHUNK];
+
+                Arrays.fill(references, -1);
+
+                // Bodies are kept, the frame is only built by the next compaction
+                if (chunkCache != null) {
+                    chunkCache.put(chunk.getX(), chunk.getZ(), new EncodedChunk(
+                        chunk.getHeightMap(),
+                        chunk.getBiomeIds(),
+                        bodies,
+                        references,
+                        0,
+                        0,
+                        0,
+                        null,
+                        0
+                    ));
+                }
+            }
+        } catch (IOException | RuntimeException exception) {
+            if (chunkCache != null) {
+                for (ProtoSlimeChunk chunk : chunks) {
+                    chunkCache.invalidate(chunk.getX(), chunk.getZ());
                 }
             }
 
-            NBTTagCompound entityCompound = new NBTTagCompound();
-            entityCompound.set("entities", entityTagList);
+            throw exception;
+        }
 
-            ByteArrayDataOutput entityByteArrayOutputStream = ByteStreams.newDataOutput();
-            // Write entities
-            writeCompound(entityByteArrayOutputStream, entityCompound);
+        NBTTagCompound worldCompound = new NBTTagCompound();
 
-            byte[] entityBytes = entityByteArrayOutputStream.toByteArray(),
-                entityCompressed = Zstd.compress(entityBytes);
+        worldCompound.set("extra", snapshot.getExtraData());
+        worldCompound.set("maps", snapshot.getMapData());
 
-            writeInt(entityCompressed.length); // Compressed size
-            writeInt(entityBytes.length); // Not compressed size
+        writeCompound(payloadOutput, worldCompound);
 
-            write(entityCompressed);
-        } else {
-            writeBoolean(false);
+        byte[] payload = payloadOutputStream.toByteArray();
+        byte[] compressed = compress(payload, SlimeBlock.JOURNAL);
+
+        writeInt(compressed.length); // Compressed size
+        writeInt(payload.length); // Not compressed size
+        writeInt(SlimeJournal.checksum(compressed, 0, compressed.length));
+
+        write(compressed);
+    }
+
+    /**
+     * Encodes a chunk like a journal record does, its coordinates, its body with every section inline
+     * and a compound with its tiles and entities. Nothing is compressed.
+     * @param chunk The chunk, captured with its blocks.
+     * @param withEntities If the entities of the chunk should be written.
+     * @throws IOException If the chunk can't be written.
+     */
+    public void writeChunkEntry(@NotNull ProtoSlimeChunk chunk, boolean withEntities) throws IOException {
+        writeChunkEntry(this, chunk, withEntities);
+    }
+
+    private byte[][] writeChunkEntry(@NotNull DataOutputStream output, @NotNull ProtoSlimeChunk chunk, boolean withEntities) throws IOException {
+        byte[][] bodies = encodeSections(chunk);
+
+        int[] references = new int[SECTION_PER_CHUNK];
+
+        Arrays.fill(references, -1);
+
+        ByteBuffer chunkData = writeChunk(chunk.getHeightMap(), chunk.getBiomeIds(), bodies, references);
+
+        output.writeInt(chunk.getX());
+        output.writeInt(chunk.getZ());
+        output.writeInt(chunkData.remaining());
+        output.write(chunkData.array(), chunkData.arrayOffset(), chunkData.remaining());
+
+        NBTTagList tileTagList = new NBTTagList();
+        chunk.getTileEntities().forEach(tileTagList::add);
+
+        NBTTagCompound chunkCompound = new NBTTagCompound();
+        chunkCompound.set("tiles", tileTagList);
+
+        if (withEntities) {
+            NBTTagList entityTagList = new NBTTagList();
+            chunk.getEntities().forEach(entityTagList::add);
+
+            chunkCompound.set("entities", entityTagList);
         }
 
-        NBTTagCompound extraCompound = new NBTTagCompound();
+        writeCompound(output, chunkCompound);
 
-        BukkitSlimePersistentContainer persistentContainer = new BukkitSlimePersistentContainer(
-            new NBTContainer(extraCompound)
-        );
+        return bodies;
+    }
 
-        for (AbstractSlimeData slimeData : dataRegistry.getRegistered()) {
-            slimeData.serialize(slimeWorld, persistentContainer);
+    /**
+     * Encodes every section of the chunk inside the scratch buffer of this thread,
+     * the body copied out of it is the only allocation per section.
+     */
+    private byte[][] encodeSections(@NotNull ProtoSlimeChunk chunk) {
+        byte[][] bodies = chunk.getSectionBodies();
+
+        if (bodies != null) {
+            return bodies;
         }
 
-        ByteArrayDataOutput extraByteArrayOutputStream = ByteStreams.newDataOutput();
-        // Write extra data
-        writeCompound(extraByteArrayOutputStream, extraCompound);
+        ProtoSlimeSection[] chunkSections = chunk.getSections();
+        bodies = new byte[SECTION_PER_CHUNK][];
 
-        byte[] extraBytes = extraByteArrayOutputStream.toByteArray(),
-            extraCompressed = Zstd.compress(extraBytes);
+        SlimeSectionCodec codec = SECTION_CODECS.get();
+        ByteBuffer buffer = SECTION_BUFFERS.get();
 
-        writeInt(extraCompressed.length); // Compressed size
-        writeInt(extraBytes.length); // Not compressed size
+        for (int sectionIndex = 0; sectionIndex < SECTION_PER_CHUNK && sectionIndex < chunkSections.length; sectionIndex++) {
+            ProtoSlimeSection section = chunkSections[sectionIndex];
+
+            if (section == null || trimEmpty && isAir(section)) {
+                continue;
+            }
 
-        write(extraCompressed);
+            buffer.clear();
 
-        NBTTagCompound mapCompound = new NBTTagCompound();
-        NBTTagList mapTagList = new NBTTagList();
+            SlimeSectionCodec.writeLight(buffer, section.getBlockLight(), sharedSections);
+            codec.write(buffer, section.getBlockIds());
+            SlimeSectionCodec.writeLight(buffer, section.getSkyLight(), sharedSections);
+
+            bodies[sectionIndex] = Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        chunk.setSectionBodies(bodies);
+
+        return bodies;
+    }
+
+    /**
+     * Puts the chunks in bitmap order and marks them in the bitmap, without sorting when the grid is dense enough
+     * to be indexed directly. Sparse worlds sort primitive keys instead, so the grid is never larger than a few times the chunks.
+     */
+    private ProtoSlimeChunk[] order(ProtoSlimeChunk[] chunks, int count, int minX, int minZ, int width, int depth, BitSet bitSet) {
+        ProtoSlimeChunk[] ordered = new ProtoSlimeChunk[count];
+        long area = (long) width * depth;
+
+        if (area <= (long) count * GRID_DENSITY) {
+            ProtoSlimeChunk[] grid = new ProtoSlimeChunk[(int) area];
+
+            for (int index = 0; index < count; index++) {
+                ProtoSlimeChunk chunk = chunks[index];
+                int gridIndex = (chunk.getZ() - minZ) * width + (chunk.getX() - minX);
+
+                grid[gridIndex] = chunk;
+                bitSet.set(gridIndex);
+            }
+
+            int position = 0;
+
+            for (int gridIndex = bitSet.nextSetBit(0); gridIndex >= 0; gridIndex = bitSet.nextSetBit(gridIndex + 1)) {
+                ordered[position++] = grid[gridIndex];
+            }
+
+            return ordered;
+        }
+
+        // Bitmap index in the high half, position in the low half
+        long[] keys = new long[count];
+
+        for (int index = 0; index < count; index++) {
+            ProtoSlimeChunk chunk = chunks[index];
+            int gridIndex = (chunk.getZ() - minZ) * width + (chunk.getX() - minX);
+
+            keys[index] = (long) gridIndex << 32 | index;
+            bitSet.set(gridIndex);
+        }
+
+        Arrays.sort(keys);
+
+        for (int index = 0; index < count; index++) {
+            ordered[index] = chunks[(int) keys[index]];
+        }
+
+        return ordered;
+    }
+
+    /**
+     * A chunk is empty without tiles, entities and sections, or with only air sections.
+     */
+    private boolean isEmpty(@NotNull ProtoSlimeChunk chunk, @NotNull SlimeWorldSnapshot snapshot) {
+        if (!chunk.getTileEntities().isEmpty() || !chunk.getEntities().isEmpty()) {
+            return false;
+        }
+
+        if (chunk.hasBlocks()) {
+            for (ProtoSlimeSection section : chunk.getSections()) {
+                if (section != null && !isAir(section)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
 
-        PersistentCollection collection = nmsWorld.worldMaps;
+        EncodedChunk cached = snapshot.getClaimedChunk(chunk.getX(), chunk.getZ());
 
-        for (Object o : collection.c) {
-            if (!(o instanceof WorldMap)) {
+        // Left for writeChunks to report
+        if (cached == null) {
+            return false;
+        }
+
+        for (byte[] body : cached.getSectionBodies()) {
+            if (body != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isAir(@NotNull ProtoSlimeSection section) {
+        for (char blockId : section.getBlockIds()) {
+            if (blockId != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isShared(@NotNull ByteBuffer body, @NotNull Map<ByteBuffer, Integer> occurrences) {
+        Integer count = occurrences.get(body);
+
+        return count != null && count > 1 && body.remaining() > SHARED_REFERENCE_SIZE;
+    }
+
+    /**
+     * Builds the uncompressed frame of a chunk inside the scratch buffer of this thread.
+     * @return The scratch buffer, from its start to the end of the frame. Only valid until the next call on this thread.
+     */
+    private ByteBuffer writeChunk(int[] heightMap, byte[] biomeIds, byte[][] sectionBodies, int[] references) {
+        ByteBuffer out = FRAME_BUFFERS.get();
+
+        out.clear();
+
+        out.asIntBuffer()
+            .put(heightMap, 0, HEIGHTMAP_SIZE);
+
+        out.position(HEIGHTMAP_SIZE * 4);
+        out.put(biomeIds, 0, BIOME_SIZE);
+
+        // Same bytes as a BitSet of the populated sections, little endian
+        int populated = 0;
+
+        for (int index = 0; index < SECTION_PER_CHUNK; index++) {
+            if (sectionBodies[index] != null) {
+                populated |= 1 << index;
+            }
+        }
+
+        out.put((byte) populated);
+        out.put((byte) (populated >> 8));
+
+        for (int index = 0; index < SECTION_PER_CHUNK; index++) {
+            byte[] body = sectionBodies[index];
+
+            if (body == null) {
                 continue;
             }
 
-            WorldMap worldMap = (WorldMap) o;
+            if (references[index] != -1) {
+                out.put(SlimeSectionCodec.SHARED_SECTION);
+                out.putInt(references[index]);
+            } else {
+                out.put(SlimeSectionCodec.INLINE_SECTION);
+                out.put(body);
+            }
+        }
+
+        out.flip();
+
+        return out;
+    }
+
+    private void writeCompressed(byte @NotNull [] bytes, @NotNull SlimeBlock block) throws IOException {
+        int bound = (int) Zstd.compressBound(bytes.length);
+
+        ByteBuffer target = SlimeBufferPool.acquire(bound, false);
 
-            NBTTagCompound compound = new NBTTagCompound();
+        try {
+            int compressed = compress(bytes, 0, bytes.length, target, block);
 
-            worldMap.b(compound);
-            // New id int tag
-            compound.setInt("id", worldMap.centerX << 12 | worldMap.centerZ << 12 | worldMap.scale);
+            writeInt(compressed); // Compressed size
+            writeInt(bytes.length); // Not compressed size
 
-            mapTagList.add(compound);
+            write(target.array(), target.arrayOffset(), compressed);
+        } finally {
+            SlimeBufferPool.release(target);
         }
+    }
 
-        mapCompound.set("maps", mapTagList);
+    private byte[] compress(byte @NotNull [] bytes, @NotNull SlimeBlock block) throws IOException {
+        return compress(bytes, 0, bytes.length, block);
+    }
 
-        ByteArrayDataOutput mapByteArrayOutputStream = ByteStreams.newDataOutput();
-        // Write map data
-        writeCompound(mapByteArrayOutputStream, mapCompound);
+    private byte[] compress(byte @NotNull [] bytes, int offset, int length, @NotNull SlimeBlock block) throws IOException {
+        int bound = (int) Zstd.compressBound(length);
 
-        byte[] mapBytes = mapByteArrayOutputStream.toByteArray(),
-            mapCompressed = Zstd.compress(mapBytes);
+        ByteBuffer target = SlimeBufferPool.acquire(bound, false);
 
-        writeInt(mapCompressed.length); // Compressed size
-        writeInt(mapBytes.length); // Not compressed size
+        try {
+            int compressed = compress(bytes, offset, length, target, block);
 
-        write(mapCompressed);
+            return Arrays.copyOfRange(target.array(), target.arrayOffset(), target.arrayOffset() + compressed);
+        } finally {
+            SlimeBufferPool.release(target);
+        }
     }
 
-    private void writeCompound(@NotNull DataOutput dataOutput, @NotNull NBTTagCompound compound) throws IOException {
-        NBTCompressedStreamTools.a(compound, dataOutput);
+    private int compress(byte @NotNull [] bytes, int offset, int length, @NotNull ByteBuffer target, @NotNull SlimeBlock block) throws IOException {
+        try {
+            int level = compressionPolicy.level(block, length),
+                windowLog = compressionPolicy.windowLog(block, length);
+
+            // Contexts are shared by every save, so the parameters are set on every call
+            return ZstdContexts.compress(dictionaryId, dictionary, context -> context.setLevel(level)
+                .setLong(windowLog)
+                .compressByteArray(target.array(), target.arrayOffset(), target.remaining(), bytes, offset, length));
+        } catch (ZstdException exception) {
+            throw new IOException("Could not compress data", exception);
+        }
     }
 
-    private void fromBitSet(@NotNull DataOutputStream stream, @NotNull BitSet bitSet, int chunkSize) throws IOException {
-        byte[] bytes = bitSet.toByteArray();
+    /**
+     * Serializes and compresses a compound into a whole block, with its compressed and uncompressed sizes.
+     */
+    private byte[] compressCompound(@NotNull NBTTagCompound compound, @NotNull SlimeBlock block) throws IOException {
+        ByteArrayDataOutput compoundOutput = ByteStreams.newDataOutput();
 
-        stream.write(bytes);
+        writeCompound(compoundOutput, compound);
 
-        int padding = chunkSize - bytes.length;
+        byte[] bytes = compoundOutput.toByteArray();
+        byte[] compressed = compress(bytes, block);
 
-        for (int i = 0; i < padding; i++) {
-            stream.write(0);
+        ByteBuffer output = ByteBuffer.allocate(8 + compressed.length);
+
+        output.putInt(compressed.length); // Compressed size
+        output.putInt(bytes.length); // Not compressed size
+        output.put(compressed);
+
+        return output.array();
+    }
+
+    /**
+     * Starts the task inside the compression pool, or runs it right away without one.
+     */
+    private ForkJoinTask<byte[]> fork(@NotNull Callable<byte[]> callable) {
+        ForkJoinTask<byte[]> task = ForkJoinTask.adapt(callable);
+
+        if (compressionPool != null) {
+            compressionPool.execute(task);
+        } else {
+            task.quietlyInvoke();
         }
+
+        return task;
     }
 
-    private Pair<byte[], NibbleArray> getBlocksId(@NotNull ChunkSection chunkSection) {
-        char[] blocksId = chunkSection.getIdArray();
+    private <T> T join(@NotNull ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
 
-        byte[] bytes = new byte[BLOCK_DATA_SIZE];
-        NibbleArray nibbleArray = new NibbleArray();
+            throw new InterruptedIOException("Interrupted while encoding the world");
+        } catch (ExecutionException exception) {
+            throw unwrap(exception.getCause());
+        }
+    }
 
-        for (int index = 0; index < blocksId.length; index++) {
-            char blockId = blocksId[index];
+    /**
+     * Runs the action for every chunk index, split across the compression pool when there is one.
+     */
+    private void forEachChunk(int count, @NotNull ParallelRange.IndexAction action) throws IOException {
+        ParallelRange.forEach(compressionPool, count, action);
+    }
 
-            bytes[index] = (byte) (blockId >> 4 & 0xFF);
+    private IOException unwrap(Throwable throwable) {
+        // Callables adapted by ForkJoinTask wrap checked exceptions into a RuntimeException
+        while (throwable instanceof RuntimeException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
 
-            nibbleArray.a(index & 15, index >> 8 & 15, index >> 4 & 15, blockId & 15);
+        if (throwable instanceof IOException) {
+            return (IOException) throwable;
         }
 
-        return new Pair<>(bytes, nibbleArray);
+        return new IOException("Could not encode world", throwable);
+    }
+
+    private void writeCompound(@NotNull DataOutput dataOutput, @NotNull NBTTagCompound compound) throws IOException {
+        NBTCompressedStreamTools.a(compound, dataOutput);
     }
 
-    private void ensureVersion(@NotNull SlimeWorld slimeWorld) throws InternalSlimeException {
-        if (slimeWorld.getVersion() != SUPPORTED_VERSION) {
-            throw new InternalSlimeException("Unsupported version");
+    private void fromBitSet(@NotNull DataOutputStream stream, @NotNull BitSet bitSet, int chunkSize) throws IOException {
+        byte[] bytes = bitSet.toByteArray();
+
+        stream.write(bytes);
+
+        int padding = chunkSize - bytes.length;
+
+        for (int i = 0; i < padding; i++) {
+            stream.write(0);
         }
     }
+
+    /**
+     * Spreads the bits of a digest, so summing them doesn't cancel out nearby values.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
 }
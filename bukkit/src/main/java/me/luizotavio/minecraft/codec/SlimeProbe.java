@@ -0,0 +1,313 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.common.exception.InternalSlimeException;
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static me.luizotavio.minecraft.common.version.SlimeVersion.*;
+
+/**
+ * Reads the header of a slime file and the sizes of its blocks, without decompressing anything.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeProbe {
+
+    private SlimeProbe() {
+        throw new AssertionError();
+    }
+
+    public static SlimeHeader probe(@NotNull File file) throws IOException, InternalSlimeException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return probe(channel);
+        }
+    }
+
+    /**
+     * Probes the channel from its current position, only the header and block sizes are read.
+     */
+    public static SlimeHeader probe(@NotNull SeekableByteChannel channel) throws IOException, InternalSlimeException {
+        return probe(new ChannelSource(channel));
+    }
+
+    /**
+     * Probes the remaining bytes of the buffer, its position is left untouched.
+     */
+    public static SlimeHeader probe(@NotNull ByteBuffer buffer) throws IOException, InternalSlimeException {
+        return probe(new BufferSource(buffer.duplicate()));
+    }
+
+    private static SlimeHeader probe(Source source) throws IOException, InternalSlimeException {
+        try {
+            return read(source);
+        } catch (BufferUnderflowException | EOFException exception) {
+            throw new InternalSlimeException("Slime data is truncated", exception);
+        }
+    }
+
+    private static SlimeHeader read(Source source) throws IOException, InternalSlimeException {
+        long start = source.position(),
+            fileSize = start + source.remaining();
+
+        ByteBuffer fixed = source.read(SLIME_MAGIC_HEADER.length + 2);
+
+        byte[] magic = new byte[SLIME_MAGIC_HEADER.length];
+
+        fixed.get(magic);
+
+        if (!Arrays.equals(SLIME_MAGIC_HEADER, magic)) {
+            throw new InternalSlimeException("Invalid magic header");
+        }
+
+        byte slimeVersion = fixed.get();
+
+        if (slimeVersion < LEGACY_SLIME_VERSION || slimeVersion > CURRENT_SLIME_VERSION) {
+            throw new InternalSlimeException("That slime version isn't supported.");
+        }
+
+        WorldVersion worldVersion = WorldVersion.fromByte(fixed.get());
+
+        if (worldVersion == null) {
+            throw new InternalSlimeException("Invalid version");
+        }
+
+        int dictionaryId = slimeVersion >= DICTIONARY_SLIME_VERSION ? source.read(4).getInt() : 0;
+
+        ByteBuffer bounds = source.read(8);
+
+        int minX = bounds.getShort(),
+            minZ = bounds.getShort(),
+            width = bounds.getShort(),
+            depth = bounds.getShort();
+
+        if (depth < 0 || width < 0) {
+            throw new InternalSlimeException("Invalid depth or width");
+        }
+
+        ByteBuffer populatedChunks = source.read((int) Math.ceil((width * depth) / 8.0D));
+
+        BitSet chunks = BitSet.valueOf(populatedChunks);
+
+        List<SlimeHeader.Block> blocks = new ArrayList<>(6),
+            chunkFrames = null;
+
+        if (slimeVersion >= SHARED_SECTIONS_SLIME_VERSION) {
+            blocks.add(readBlock(source, SlimeHeader.BlockType.SHARED_SECTIONS));
+        }
+
+        if (slimeVersion >= FRAMED_SLIME_VERSION) {
+            int frames = chunks.cardinality();
+
+            ByteBuffer table = source.read(frames * 8);
+
+            chunkFrames = new ArrayList<>(frames);
+
+            long offset = source.position();
+            int compressedSize = 0,
+                uncompressedSize = 0;
+
+            for (int index = 0; index < frames; index++) {
+                int frameCompressed = table.getInt(),
+                    frameUncompressed = table.getInt();
+
+                if (frameCompressed < 0 || frameUncompressed < 0) {
+                    throw new InternalSlimeException("Invalid chunk frame table");
+                }
+
+                chunkFrames.add(new SlimeHeader.Block(SlimeHeader.BlockType.CHUNKS, offset + compressedSize, frameCompressed, frameUncompressed));
+
+                compressedSize += frameCompressed;
+                uncompressedSize += frameUncompressed;
+            }
+
+            if (compressedSize < 0 || compressedSize > source.remaining()) {
+                throw new InternalSlimeException("Invalid size for " + SlimeHeader.BlockType.CHUNKS + " block");
+            }
+
+            source.skip(compressedSize);
+
+            blocks.add(new SlimeHeader.Block(SlimeHeader.BlockType.CHUNKS, offset, compressedSize, uncompressedSize));
+        } else {
+            blocks.add(readBlock(source, SlimeHeader.BlockType.CHUNKS));
+        }
+
+        blocks.add(readBlock(source, SlimeHeader.BlockType.TILES));
+
+        if (source.read(1).get() != 0) {
+            blocks.add(readBlock(source, SlimeHeader.BlockType.ENTITIES));
+        }
+
+        // Same rule as the reader, a single trailing block is the map data
+        SlimeHeader.Block trailing = readBlock(source, SlimeHeader.BlockType.EXTRA);
+
+        if (source.remaining() > 0) {
+            blocks.add(trailing);
+            blocks.add(readBlock(source, SlimeHeader.BlockType.MAPS));
+        } else {
+            blocks.add(new SlimeHeader.Block(
+                SlimeHeader.BlockType.MAPS,
+                trailing.getOffset(),
+                trailing.getCompressedSize(),
+                trailing.getUncompressedSize()
+            ));
+        }
+
+        return new SlimeHeader(
+            slimeVersion,
+            worldVersion,
+            dictionaryId,
+            minX,
+            minZ,
+            width,
+            depth,
+            chunks,
+            blocks,
+            chunkFrames,
+            fileSize - start
+        );
+    }
+
+    private static SlimeHeader.Block readBlock(Source source, SlimeHeader.BlockType type) throws IOException, InternalSlimeException {
+        ByteBuffer sizes = source.read(8);
+
+        int compressedSize = sizes.getInt(),
+            uncompressedSize = sizes.getInt();
+
+        if (compressedSize < 0 || uncompressedSize < 0 || compressedSize > source.remaining()) {
+            throw new InternalSlimeException("Invalid size for " + type + " block");
+        }
+
+        long offset = source.position();
+
+        source.skip(compressedSize);
+
+        return new SlimeHeader.Block(type, offset, compressedSize, uncompressedSize);
+    }
+
+    private interface Source {
+
+        ByteBuffer read(int length) throws IOException;
+
+        void skip(int length) throws IOException;
+
+        long position() throws IOException;
+
+        long remaining() throws IOException;
+
+    }
+
+    private static class BufferSource implements Source {
+
+        private final ByteBuffer buffer;
+
+        private BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public ByteBuffer read(int length) {
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+
+            ByteBuffer slice = buffer.slice();
+
+            slice.limit(length);
+            buffer.position(buffer.position() + length);
+
+            return slice;
+        }
+
+        @Override
+        public void skip(int length) {
+            buffer.position(buffer.position() + length);
+        }
+
+        @Override
+        public long position() {
+            return buffer.position();
+        }
+
+        @Override
+        public long remaining() {
+            return buffer.remaining();
+        }
+    }
+
+    private static class ChannelSource implements Source {
+
+        private final SeekableByteChannel channel;
+
+        private ChannelSource(SeekableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public ByteBuffer read(int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+
+            buffer.flip();
+
+            return buffer;
+        }
+
+        @Override
+        public void skip(int length) throws IOException {
+            channel.position(channel.position() + length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public long remaining() throws IOException {
+            return channel.size() - channel.position();
+        }
+    }
+}
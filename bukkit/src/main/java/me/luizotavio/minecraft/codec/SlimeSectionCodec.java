@@ -0,0 +1,305 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import me.hugmanrique.slime.core.SlimeReaderUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.BLOCK_DATA_SIZE;
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.NIBBLE_ARRAY_SIZE;
+
+/**
+ * Encodes the blocks of a section with the smallest of three encodings:
+ * <ul>
+ *     <li>{@link #RAW_ENCODING}: 4096 block ids followed by 2048 bytes of data nibbles, like older revisions.</li>
+ *     <li>{@link #SINGLE_ENCODING}: a single packed block (id &lt;&lt; 4 | data) filling the whole section.</li>
+ *     <li>{@link #PALETTE_ENCODING}: the amount of distinct blocks, the packed blocks and their indices,
+ *     packed into longs with as few bits as the palette needs and never spanning two longs.</li>
+ * </ul>
+ * Writing needs scratch arrays, so one instance should only be used by one thread.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeSectionCodec {
+
+    public static final byte RAW_ENCODING = 0;
+    public static final byte SINGLE_ENCODING = 1;
+    public static final byte PALETTE_ENCODING = 2;
+
+    // Light arrays, older revisions only wrote the first two as a boolean
+    public static final byte ABSENT_LIGHT = 0;
+    public static final byte FULL_LIGHT = 1;
+    public static final byte CONSTANT_LIGHT = 2;
+
+    // How a section is stored inside a chunk since the shared sections revision
+    public static final byte INLINE_SECTION = 0;
+    public static final byte SHARED_SECTION = 1;
+
+    // Largest body a section can take, both light arrays in full and the raw encoding
+    public static final int MAX_SECTION_SIZE = 1 + NIBBLE_ARRAY_SIZE + 1 + BLOCK_DATA_SIZE + NIBBLE_ARRAY_SIZE + 1 + NIBBLE_ARRAY_SIZE;
+
+    // Decoded constant light arrays, shared by every section as nobody modifies them
+    private static final byte[][] CONSTANT_LIGHT_ARRAYS = new byte[16][NIBBLE_ARRAY_SIZE];
+
+    static {
+        for (int value = 0; value < CONSTANT_LIGHT_ARRAYS.length; value++) {
+            Arrays.fill(CONSTANT_LIGHT_ARRAYS[value], (byte) (value << 4 | value));
+        }
+    }
+
+    // Index + 1 of every block inside the palette being built, 0 means absent
+    private final int[] paletteIndexes = new int[1 << 16];
+    private final char[] palette = new char[BLOCK_DATA_SIZE];
+
+    private final byte[] blocks = new byte[BLOCK_DATA_SIZE];
+    private final byte[] data = new byte[NIBBLE_ARRAY_SIZE];
+
+    /**
+     * Writes the blocks of a section, picking the smallest encoding.
+     * Nothing is allocated, the palette is built inside the scratch arrays of this codec.
+     * @param out The output, with at least {@link #MAX_SECTION_SIZE} bytes remaining.
+     * @param blockIds The internal block ids of the section.
+     */
+    public void write(@NotNull ByteBuffer out, char @NotNull [] blockIds) {
+        int size = 0;
+
+        for (char blockId : blockIds) {
+            if (paletteIndexes[blockId] == 0) {
+                palette[size++] = blockId;
+                paletteIndexes[blockId] = size;
+            }
+        }
+
+        try {
+            if (size == 1) {
+                out.put(SINGLE_ENCODING);
+                out.putChar(palette[0]);
+
+                return;
+            }
+
+            int bits = bitsFor(size),
+                perLong = 64 / bits,
+                longs = (BLOCK_DATA_SIZE + perLong - 1) / perLong;
+
+            if (2 + size * 2 + longs * 8 >= BLOCK_DATA_SIZE + NIBBLE_ARRAY_SIZE) {
+                writeRaw(out, blockIds);
+
+                return;
+            }
+
+            out.put(PALETTE_ENCODING);
+            out.putShort((short) size);
+
+            for (int index = 0; index < size; index++) {
+                out.putChar(palette[index]);
+            }
+
+            for (int index = 0; index < longs; index++) {
+                long value = 0;
+
+                for (int offset = 0; offset < perLong; offset++) {
+                    int block = index * perLong + offset;
+
+                    if (block >= BLOCK_DATA_SIZE) {
+                        break;
+                    }
+
+                    value |= (long) (paletteIndexes[blockIds[block]] - 1) << offset * bits;
+                }
+
+                out.putLong(value);
+            }
+        } finally {
+            for (int index = 0; index < size; index++) {
+                paletteIndexes[palette[index]] = 0;
+            }
+        }
+    }
+
+    private void writeRaw(ByteBuffer out, char[] blockIds) {
+        out.put(RAW_ENCODING);
+
+        writeLegacy(out, blockIds);
+    }
+
+    /**
+     * Writes the blocks of a section like the legacy revision, raw ids then their data nibbles without an encoding byte.
+     * @param out The output.
+     * @param blockIds The internal block ids.
+     */
+    public void writeLegacy(@NotNull ByteBuffer out, char @NotNull [] blockIds) {
+        Arrays.fill(data, (byte) 0);
+
+        for (int index = 0; index < BLOCK_DATA_SIZE; index++) {
+            char blockId = blockIds[index];
+
+            blocks[index] = (byte) (blockId >> 4 & 0xFF);
+            data[index >> 1] |= (blockId & 15) << ((index & 1) << 2);
+        }
+
+        out.put(blocks);
+        out.put(data);
+    }
+
+    /**
+     * Writes a light array, collapsing it into a single nibble when every value is the same.
+     * @param out The output.
+     * @param light The packed nibbles, or null if the section has no such light.
+     */
+    public static void writeLight(@NotNull ByteBuffer out, byte[] light) {
+        writeLight(out, light, true);
+    }
+
+    /**
+     * Same as {@link #writeLight(ByteBuffer, byte[])}, without collapsing when the revision has no constant arrays.
+     * @param collapse If constant arrays can be written as a single nibble.
+     */
+    public static void writeLight(@NotNull ByteBuffer out, byte[] light, boolean collapse) {
+        if (light == null || light.length != NIBBLE_ARRAY_SIZE) {
+            out.put(ABSENT_LIGHT);
+            return;
+        }
+
+        byte first = light[0];
+
+        boolean constant = collapse && (first >> 4 & 15) == (first & 15);
+
+        for (int index = 1; constant && index < light.length; index++) {
+            constant = light[index] == first;
+        }
+
+        if (constant) {
+            out.put(CONSTANT_LIGHT);
+            out.put((byte) (first & 15));
+        } else {
+            out.put(FULL_LIGHT);
+            out.put(light);
+        }
+    }
+
+    /**
+     * Reads a light array, constant and absent arrays are shared and must never be modified.
+     * @param input The buffer, positioned at the light flag.
+     * @return The packed nibbles.
+     * @throws IOException If the flag is unknown.
+     */
+    public static byte @NotNull [] readLight(@NotNull ByteBuffer input) throws IOException {
+        byte flag = input.get();
+
+        switch (flag) {
+            case ABSENT_LIGHT:
+                return CONSTANT_LIGHT_ARRAYS[0];
+            case FULL_LIGHT: {
+                byte[] light = new byte[NIBBLE_ARRAY_SIZE];
+
+                input.get(light);
+
+                return light;
+            }
+            case CONSTANT_LIGHT:
+                return CONSTANT_LIGHT_ARRAYS[input.get() & 15];
+            default:
+                throw new IOException("Unknown light flag " + flag);
+        }
+    }
+
+    /**
+     * Reads the blocks of a section, remapping them into internal block ids.
+     * @param input The buffer, positioned at the encoding byte.
+     * @param blockIds Where to write the ids to.
+     * @throws IOException If the encoding is unknown or the palette is invalid.
+     */
+    public static void read(@NotNull ByteBuffer input, char @NotNull [] blockIds) throws IOException {
+        byte encoding = input.get();
+
+        switch (encoding) {
+            case RAW_ENCODING: {
+                byte[] blocks = new byte[BLOCK_DATA_SIZE];
+                byte[] data = new byte[NIBBLE_ARRAY_SIZE];
+
+                input.get(blocks);
+                input.get(data);
+
+                SlimeReaderUtil.readBlockIds(blockIds, blocks, data);
+                break;
+            }
+            case SINGLE_ENCODING:
+                Arrays.fill(blockIds, SlimeReaderUtil.getBlockId(input.getChar()));
+                break;
+            case PALETTE_ENCODING: {
+                int size = input.getShort() & 0xFFFF;
+
+                if (size < 2 || size > BLOCK_DATA_SIZE) {
+                    throw new IOException("Invalid palette size " + size);
+                }
+
+                char[] palette = new char[size];
+
+                for (int index = 0; index < size; index++) {
+                    palette[index] = SlimeReaderUtil.getBlockId(input.getChar());
+                }
+
+                int bits = bitsFor(size),
+                    perLong = 64 / bits,
+                    longs = (BLOCK_DATA_SIZE + perLong - 1) / perLong;
+
+                long mask = (1L << bits) - 1;
+
+                for (int index = 0; index < longs; index++) {
+                    long value = input.getLong();
+
+                    for (int offset = 0; offset < perLong; offset++) {
+                        int block = index * perLong + offset;
+
+                        if (block >= BLOCK_DATA_SIZE) {
+                            break;
+                        }
+
+                        int paletteIndex = (int) (value >>> offset * bits & mask);
+
+                        if (paletteIndex >= size) {
+                            throw new IOException("Palette index " + paletteIndex + " out of bounds");
+                        }
+
+                        blockIds[block] = palette[paletteIndex];
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown section encoding " + encoding);
+        }
+    }
+
+    private static int bitsFor(int size) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+}
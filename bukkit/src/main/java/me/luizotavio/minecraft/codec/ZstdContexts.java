@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.codec;
+
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Small pool of zstd contexts, creating one for every block is far more expensive than small worlds.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class ZstdContexts {
+
+    private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+    // Dictionaries are sticky inside a context, so each dictionary id, 0 for none, has its own contexts
+    private static final Map<Integer, Queue<ZstdCompressCtx>> COMPRESS_CONTEXTS = new ConcurrentHashMap<>();
+    private static final Map<Integer, Queue<ZstdDecompressCtx>> DECOMPRESS_CONTEXTS = new ConcurrentHashMap<>();
+
+    private ZstdContexts() {
+        throw new AssertionError();
+    }
+
+    public static int compress(@NotNull ContextAction<ZstdCompressCtx> action) {
+        return compress(0, null, action);
+    }
+
+    /**
+     * @param dictionaryId The id of the dictionary, 0 means no dictionary.
+     * @param dictionary The dictionary content, only read when a new context is created.
+     * @param action The call to make with the context, it must not keep the context.
+     * @return The result of the action.
+     */
+    public static int compress(int dictionaryId, byte[] dictionary, @NotNull ContextAction<ZstdCompressCtx> action) {
+        return run(COMPRESS_CONTEXTS, dictionaryId, () -> {
+            ZstdCompressCtx context = new ZstdCompressCtx();
+
+            if (dictionaryId != 0) {
+                context.loadDict(dictionary);
+            }
+
+            return context;
+        }, action);
+    }
+
+    public static int decompress(@NotNull ContextAction<ZstdDecompressCtx> action) {
+        return decompress(0, null, action);
+    }
+
+    /**
+     * @param dictionaryId The id of the dictionary, 0 means no dictionary.
+     * @param dictionary The dictionary content, only read when a new context is created.
+     * @param action The call to make with the context, it must not keep the context.
+     * @return The result of the action.
+     */
+    public static int decompress(int dictionaryId, byte[] dictionary, @NotNull ContextAction<ZstdDecompressCtx> action) {
+        return run(DECOMPRESS_CONTEXTS, dictionaryId, () -> {
+            ZstdDecompressCtx context = new ZstdDecompressCtx();
+
+            if (dictionaryId != 0) {
+                context.loadDict(dictionary);
+            }
+
+            return context;
+        }, action);
+    }
+
+    /**
+     * Closes every idle context, the ones in use are closed once returned.
+     */
+    public static void closeIdle() {
+        closeIdle(COMPRESS_CONTEXTS);
+        closeIdle(DECOMPRESS_CONTEXTS);
+    }
+
+    private static <T extends Closeable> int run(Map<Integer, Queue<T>> contexts, int dictionaryId, Supplier<T> factory, ContextAction<T> action) {
+        Queue<T> idle = contexts.computeIfAbsent(dictionaryId, ignored -> new ArrayBlockingQueue<>(MAX_IDLE));
+        T context = idle.poll();
+
+        if (context == null) {
+            SlimeMetrics.increment(SlimeMetric.ZSTD_CONTEXT_MISSES);
+
+            context = factory.get();
+        } else {
+            SlimeMetrics.increment(SlimeMetric.ZSTD_CONTEXT_HITS);
+        }
+
+        try {
+            return action.apply(context);
+        } finally {
+            if (!idle.offer(context)) {
+                close(context);
+            }
+        }
+    }
+
+    private static <T extends Closeable> void closeIdle(Map<Integer, Queue<T>> contexts) {
+        for (Queue<T> idle : contexts.values()) {
+            T context;
+
+            while ((context = idle.poll()) != null) {
+                close(context);
+            }
+        }
+    }
+
+    private static void close(Closeable context) {
+        if (context instanceof ZstdCompressCtx) {
+            ((ZstdCompressCtx) context).close();
+        } else if (context instanceof ZstdDecompressCtx) {
+            ((ZstdDecompressCtx) context).close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ContextAction<T> {
+
+        int apply(@NotNull T context);
+
+    }
+}
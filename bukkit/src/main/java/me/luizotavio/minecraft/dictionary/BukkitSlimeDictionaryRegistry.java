@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.dictionary;
+
+import com.github.luben.zstd.Zstd;
+import me.luizotavio.minecraft.common.dictionary.SlimeDictionaryRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class BukkitSlimeDictionaryRegistry implements SlimeDictionaryRegistry {
+
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+
+    @Override
+    public int register(byte @NotNull [] dictionary) {
+        Objects.requireNonNull(dictionary, "dictionary cannot be null");
+
+        int id = (int) Zstd.getDictIdFromDict(dictionary);
+
+        if (id == 0) {
+            throw new IllegalArgumentException("Dictionary has no id, only trained dictionaries are supported");
+        }
+
+        dictionaries.put(id, dictionary.clone());
+
+        return id;
+    }
+
+    @Override
+    public void unregister(int id) {
+        dictionaries.remove(id);
+    }
+
+    @Override
+    public boolean isRegistered(int id) {
+        return dictionaries.containsKey(id);
+    }
+
+    @Override
+    public byte @Nullable [] getDictionary(int id) {
+        return dictionaries.get(id);
+    }
+
+    @Override
+    public @NotNull Collection<Integer> getRegistered() {
+        return Collections.unmodifiableSet(dictionaries.keySet());
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.dictionary;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import me.luizotavio.minecraft.codec.SlimeBufferReader;
+import me.luizotavio.minecraft.common.dictionary.SlimeDictionaryRegistry;
+import me.luizotavio.minecraft.common.exception.InternalSlimeException;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import net.minecraft.server.v1_8_R3.NBTBase;
+import net.minecraft.server.v1_8_R3.NBTCompressedStreamTools;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.SUPPORTED_VERSION;
+
+/**
+ * Trains a zstd dictionary from a corpus of slime files.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeDictionaryTrainer {
+
+    /**
+     * Same default as the zstd command line, 110 KiB.
+     */
+    public static final int DEFAULT_DICTIONARY_SIZE = 112640;
+
+    /**
+     * How many times the dictionary size can be kept as samples, zstd recommends around 100.
+     */
+    private static final int SAMPLE_RATIO = 100;
+
+    private final ZstdDictTrainer trainer;
+    private final SlimeDictionaryRegistry dictionaryRegistry;
+
+    private int samples;
+
+    public SlimeDictionaryTrainer() {
+        this(DEFAULT_DICTIONARY_SIZE, null);
+    }
+
+    /**
+     * @param dictionarySize The maximum size of the dictionary.
+     * @param dictionaryRegistry Used to read files of the corpus already compressed with a dictionary.
+     */
+    public SlimeDictionaryTrainer(int dictionarySize, @Nullable SlimeDictionaryRegistry dictionaryRegistry) {
+        if (dictionarySize <= 0) {
+            throw new IllegalArgumentException("dictionarySize must be positive");
+        }
+
+        this.trainer = new ZstdDictTrainer(dictionarySize * SAMPLE_RATIO, dictionarySize);
+        this.dictionaryRegistry = dictionaryRegistry;
+    }
+
+    public void addFile(@NotNull File file) throws IOException, InternalSlimeException {
+        addFile(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * Adds every block of a slime file as samples.
+     * Samples past the buffer of the trainer are ignored.
+     * @param data The slime file.
+     * @throws IOException If the file can't be decompressed.
+     * @throws InternalSlimeException If the file isn't a valid slime file.
+     */
+    public void addFile(@NotNull ByteBuffer data) throws IOException, InternalSlimeException {
+        ProtoSlimeFile protoSlimeFile = new SlimeBufferReader(data, dictionaryRegistry)
+            .transform(SUPPORTED_VERSION, Collections.emptySet());
+
+        for (long key : protoSlimeFile.getChunkKeys()) {
+            ByteBuffer chunk = protoSlimeFile.getRawChunk(LongHash.msw(key), LongHash.lsw(key));
+
+            byte[] sample = new byte[chunk.remaining()];
+
+            chunk.get(sample);
+
+            addSample(sample);
+        }
+
+        addCompound("tiles", protoSlimeFile.getTileEntities());
+        addCompound("entities", protoSlimeFile.getEntities());
+
+        addSample(protoSlimeFile.getExtraData());
+        addSample(protoSlimeFile.getWorldMaps());
+    }
+
+    /**
+     * @return The trained dictionary.
+     * @throws IllegalStateException If no sample was added.
+     */
+    public byte @NotNull [] train() {
+        if (samples == 0) {
+            throw new IllegalStateException("No samples were added");
+        }
+
+        return trainer.trainSamples();
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    private void addCompound(String name, NBTBase tag) throws IOException {
+        NBTTagCompound compound = new NBTTagCompound();
+
+        compound.set(name, tag);
+
+        addSample(compound);
+    }
+
+    private void addSample(NBTTagCompound compound) throws IOException {
+        ByteArrayDataOutput output = ByteStreams.newDataOutput();
+
+        NBTCompressedStreamTools.a(compound, output);
+
+        addSample(output.toByteArray());
+    }
+
+    private void addSample(byte[] sample) {
+        if (sample.length > 0 && trainer.addSample(sample)) {
+            samples++;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: SlimeDictionaryTrainer <output> <file or folder>...");
+            System.exit(1);
+        }
+
+        SlimeDictionaryTrainer trainer = new SlimeDictionaryTrainer();
+
+        for (int index = 1; index < args.length; index++) {
+            File input = new File(args[index]);
+            File[] files = input.isDirectory() ? input.listFiles((dir, name) -> name.endsWith(".slime")) : new File[]{input};
+
+            if (files == null) {
+                continue;
+            }
+
+            for (File file : files) {
+                trainer.addFile(file);
+            }
+        }
+
+        byte[] dictionary = trainer.train();
+
+        Files.write(new File(args[0]).toPath(), dictionary);
+
+        System.out.println("Trained a " + dictionary.length + " bytes dictionary from " + trainer.getSamples() + " samples");
+    }
+}
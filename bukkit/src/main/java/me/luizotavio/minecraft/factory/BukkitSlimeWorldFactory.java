@@ -33,6 +33,7 @@ import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.settings.SettingsProperty;
 import me.luizotavio.minecraft.common.util.Pair;
 import me.luizotavio.minecraft.common.version.WorldVersion;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
 import me.luizotavio.minecraft.world.CraftSlimeWorld;
 import net.minecraft.server.v1_8_R3.WorldServer;
 import org.bukkit.Bukkit;
@@ -119,4 +120,28 @@ public class BukkitSlimeWorldFactory implements SlimeWorldFactory {
 
         return new Pair<>(bukkitSlimeWorld, byteArrayOutputStream.toByteArray());
     }
+
+    @Override
+    public @NotNull SlimeWorld convert(@NotNull World world) throws InternalSlimeException {
+        SlimeWorld slimeWorld = getSlimeWorld(world);
+
+        if (slimeWorld != null) {
+            return slimeWorld;
+        }
+
+        BukkitSlimeWorld bukkitSlimeWorld = new BukkitSlimeWorld(world.getName(), WorldVersion.V1_8_R3);
+
+        SlimeWorldSnapshot snapshot = SlimeWorldSnapshot.capture(bukkitSlimeWorld, slimeKorld.getDataRegistry());
+
+        slimeKorld.getLoaderStrategy().save(bukkitSlimeWorld, out -> {
+            SlimeOutputStream slimeOutputStream = new SlimeOutputStream(out);
+
+            // Converted once and read many times, like an unload
+            slimeOutputStream.setCompressionPolicy(bukkitSlimeWorld.getArchivalCompressionPolicy());
+            slimeOutputStream.write(snapshot);
+            slimeOutputStream.flush();
+        });
+
+        return bukkitSlimeWorld;
+    }
 }
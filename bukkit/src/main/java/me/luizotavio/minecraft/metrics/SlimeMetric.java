@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.metrics;
+
+/**
+ * Every counter tracked by {@link SlimeMetrics}.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public enum SlimeMetric {
+    /**
+     * A pooled buffer was reused.
+     */
+    BUFFER_POOL_HITS,
+    /**
+     * No pooled buffer was available, so a new one was allocated.
+     */
+    BUFFER_POOL_MISSES,
+    /**
+     * An idle zstd context was reused.
+     */
+    ZSTD_CONTEXT_HITS,
+    /**
+     * A new zstd context had to be created.
+     */
+    ZSTD_CONTEXT_MISSES,
+    /**
+     * A save was written, either as a full file or a journal record.
+     */
+    SAVES_PERSISTED,
+    /**
+     * A save was skipped, its content matched the last persisted one.
+     */
+    SAVES_SKIPPED,
+    /**
+     * An unloaded chunk was handed back to NMS as it was.
+     */
+    CHUNK_CACHE_HITS,
+    /**
+     * A chunk had to be built from its proto chunk.
+     */
+    CHUNK_CACHE_MISSES,
+    /**
+     * An unloaded chunk was released by the chunk loader.
+     */
+    CHUNK_CACHE_EVICTIONS,
+    /**
+     * A modified chunk was captured as a proto chunk while being released, the file doesn't hold its changes.
+     */
+    CHUNKS_RETAINED,
+    /**
+     * Encoded chunks currently kept to be spliced into the next saves, across every world.
+     */
+    ENCODED_CACHE_ENTRIES,
+    /**
+     * Estimated bytes held by the encoded chunks currently kept, across every world.
+     */
+    ENCODED_CACHE_BYTES,
+    /**
+     * An encoded chunk was dropped past the capacity of its cache, it's encoded again on the next save.
+     */
+    ENCODED_CACHE_EVICTIONS,
+    /**
+     * A world was initialized from its parsed template, without reading its file again.
+     */
+    TEMPLATE_CACHE_HITS,
+    /**
+     * A world had no template matching its content, so its file was parsed.
+     */
+    TEMPLATE_CACHE_MISSES,
+    /**
+     * A template was evicted past the capacity or the memory limit of the cache.
+     */
+    TEMPLATE_CACHE_EVICTIONS
+}
@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters of the slime internals, cheap enough to be updated from any thread.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeMetrics {
+
+    private static final SlimeMetric[] METRICS = SlimeMetric.values();
+    private static final LongAdder[] COUNTERS = new LongAdder[METRICS.length];
+
+    static {
+        for (int index = 0; index < COUNTERS.length; index++) {
+            COUNTERS[index] = new LongAdder();
+        }
+    }
+
+    private SlimeMetrics() {
+        throw new AssertionError();
+    }
+
+    public static void increment(@NotNull SlimeMetric metric) {
+        COUNTERS[metric.ordinal()].increment();
+    }
+
+    public static void add(@NotNull SlimeMetric metric, long value) {
+        COUNTERS[metric.ordinal()].add(value);
+    }
+
+    public static long get(@NotNull SlimeMetric metric) {
+        return COUNTERS[metric.ordinal()].sum();
+    }
+
+    /**
+     * @return An immutable copy of every counter.
+     */
+    @NotNull
+    public static Map<SlimeMetric, Long> snapshot() {
+        Map<SlimeMetric, Long> snapshot = new EnumMap<>(SlimeMetric.class);
+
+        for (SlimeMetric metric : METRICS) {
+            snapshot.put(metric, get(metric));
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+}
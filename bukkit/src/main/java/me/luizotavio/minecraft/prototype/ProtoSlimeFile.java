@@ -24,21 +24,34 @@
 
 package me.luizotavio.minecraft.prototype;
 
-import com.google.common.io.ByteArrayDataInput;
-import com.google.common.io.ByteStreams;
+import gnu.trove.map.hash.TLongIntHashMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TLongHashSet;
 import me.hugmanrique.slime.core.SlimeReaderUtil;
+import me.luizotavio.minecraft.codec.EncodedChunkCache.EncodedChunk;
+import me.luizotavio.minecraft.codec.SlimeBufferPool;
+import me.luizotavio.minecraft.codec.SlimeSectionCodec;
 import me.luizotavio.minecraft.common.version.WorldVersion;
 import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
 import net.minecraft.server.v1_8_R3.*;
 import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
 
 import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.CURRENT_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.PALETTE_SLIME_VERSION;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.SHARED_SECTIONS_SLIME_VERSION;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -46,29 +59,119 @@ import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
  */
 public class ProtoSlimeFile {
 
+    private final byte slimeVersion;
     private final WorldVersion worldVersion;
 
     private final int width, depth, minX, minZ;
     private final BitSet chunks;
 
-    private final byte[] chunkData;
+    // Either every chunk uncompressed, or every chunk frame when frameDecompressor isn't null
+    private final ByteBuffer chunkData;
+    private final ChunkFrameDecompressor frameDecompressor;
+    private final int dictionaryId;
 
     private final NBTTagList tileEntities, entities;
-    private final NBTTagCompound extraData, mapData;
+    private NBTTagCompound extraData, mapData;
 
+    // Offset and length of each chunk inside chunkData, filled by a single cheap pass.
+    private final TLongIntHashMap chunkOffsets = new TLongIntHashMap(),
+        chunkLengths = new TLongIntHashMap();
+
+    // Uncompressed size of each frame, only used by the framed layout
+    private final TLongIntHashMap frameSizes = new TLongIntHashMap();
+
+    private ProtoSlimeSection[] sharedSections = new ProtoSlimeSection[0];
+
+    // Still encoded bodies of the shared sections, so their frames can be written again as they are
+    private byte[][] sharedBodies = new byte[0][];
+
+    private final TLongObjectHashMap<List<NBTTagCompound>> chunkTiles = new TLongObjectHashMap<>(),
+        chunkEntities = new TLongObjectHashMap<>();
+
+    // Uncompressed chunks replayed from the journal, always in the current revision and with every section inline
+    private final TLongObjectHashMap<ByteBuffer> journalChunks = new TLongObjectHashMap<>();
+
+    // Set once the journal is replayed, the file may then be shared between worlds
+    private volatile boolean sealed;
+
+    /**
+     * Creates a file from the legacy layout, where every chunk lives in a single uncompressed block.
+     */
+    public ProtoSlimeFile(
+        byte slimeVersion,
+        @NotNull WorldVersion worldVersion,
+        int width,
+        int depth,
+        int minX,
+        int minZ,
+        @NotNull BitSet chunks,
+        @NotNull ByteBuffer chunkData,
+        NBTTagList tileData,
+        NBTTagList entityData,
+        NBTTagCompound extraData,
+        NBTTagCompound mapData
+    ) throws IOException {
+        this(slimeVersion, worldVersion, width, depth, minX, minZ, chunks, chunkData, null, 0, tileData, entityData, extraData, mapData);
+
+        indexChunks();
+        indexEntities();
+    }
+
+    /**
+     * Creates a file from the framed layout, where every chunk is its own compressed frame.
+     * Frames are only decompressed when their chunk is requested.
+     * @param frames Every frame, one after another in the order of the chunk bitmap.
+     * @param compressedSizes The compressed size of each frame.
+     * @param uncompressedSizes The uncompressed size of each frame.
+     * @param sharedSections The uncompressed shared sections block, only read while constructing, or null if the revision has none.
+     * @param dictionaryId The id of the zstd dictionary the frames were compressed with, 0 if none.
+     */
     public ProtoSlimeFile(
+        byte slimeVersion,
         @NotNull WorldVersion worldVersion,
         int width,
         int depth,
         int minX,
         int minZ,
         @NotNull BitSet chunks,
-        byte[] chunkData,
+        @NotNull ByteBuffer frames,
+        int @NotNull [] compressedSizes,
+        int @NotNull [] uncompressedSizes,
+        @Nullable ByteBuffer sharedSections,
+        @NotNull ChunkFrameDecompressor frameDecompressor,
+        int dictionaryId,
+        NBTTagList tileData,
+        NBTTagList entityData,
+        NBTTagCompound extraData,
+        NBTTagCompound mapData
+    ) throws IOException {
+        this(slimeVersion, worldVersion, width, depth, minX, minZ, chunks, frames, frameDecompressor, dictionaryId, tileData, entityData, extraData, mapData);
+
+        if (sharedSections != null) {
+            readSharedSections(sharedSections.duplicate());
+        }
+
+        indexFrames(compressedSizes, uncompressedSizes);
+        indexEntities();
+    }
+
+    private ProtoSlimeFile(
+        byte slimeVersion,
+        WorldVersion worldVersion,
+        int width,
+        int depth,
+        int minX,
+        int minZ,
+        BitSet chunks,
+        ByteBuffer chunkData,
+        ChunkFrameDecompressor frameDecompressor,
+        int dictionaryId,
         NBTTagList tileData,
         NBTTagList entityData,
         NBTTagCompound extraData,
         NBTTagCompound mapData
     ) {
+        this.slimeVersion = slimeVersion;
         this.worldVersion = worldVersion;
         this.width = width;
         this.depth = depth;
@@ -76,6 +179,8 @@ public class ProtoSlimeFile {
         this.minZ = minZ;
         this.chunks = chunks;
         this.chunkData = chunkData;
+        this.frameDecompressor = frameDecompressor;
+        this.dictionaryId = dictionaryId;
         this.mapData = mapData;
         this.extraData = extraData;
         this.tileEntities = tileData;
@@ -83,133 +188,596 @@ public class ProtoSlimeFile {
     }
 
     /**
-     * Thanks for SlimeWorldManager && hugmanrique!
-     * Transform the file into a {@link ProtoSlimeChunk} object.
-     * @return The collection of chunks.
-     * @throws IOException If an error occurs while reading the file.
+     * Walks the chunk data once, only recording where each chunk starts.
+     * Sections are skipped over and decoded later by {@link #getProtoChunk(int, int)}.
+     * @throws IOException If the chunk data is truncated.
      */
-    public TLongObjectHashMap<ProtoSlimeChunk> getProtoChunks() throws IOException {
-        TLongObjectHashMap<ProtoSlimeChunk> protoChunks = new TLongObjectHashMap<>();
+    private void indexChunks() throws IOException {
+        ByteBuffer buffer = chunkData.duplicate();
 
-        ByteArrayDataInput input = ByteStreams.newDataInput(chunkData);
+        try {
+            for (int index = chunks.nextSetBit(0); index >= 0; index = chunks.nextSetBit(index + 1)) {
+                int x = index % width + minX,
+                    z = index / width + minZ;
 
-        for (int index = 0; index < chunks.size(); index++) {
-            if (!chunks.get(index)) {
-                continue;
+                long hash = LongHash.toLong(x, z);
+                int offset = buffer.position();
+
+                chunkOffsets.put(hash, offset);
+
+                skip(buffer, HEIGHTMAP_SIZE * 4 + BIOME_SIZE);
+
+                byte[] sections = new byte[SECTION_PER_CHUNK / 8];
+
+                buffer.get(sections);
+
+                BitSet populatedSections = BitSet.valueOf(sections);
+
+                for (int sectionIndex = 0; sectionIndex < SECTION_PER_CHUNK; sectionIndex++) {
+                    if (!populatedSections.get(sectionIndex)) {
+                        continue;
+                    }
+
+                    // Block light
+                    if (buffer.get() != 0) {
+                        skip(buffer, NIBBLE_ARRAY_SIZE);
+                    }
+
+                    skip(buffer, BLOCK_DATA_SIZE + NIBBLE_ARRAY_SIZE);
+
+                    // Sky light
+                    if (buffer.get() != 0) {
+                        skip(buffer, NIBBLE_ARRAY_SIZE);
+                    }
+                }
+
+                chunkLengths.put(hash, buffer.position() - offset);
             }
+        } catch (BufferUnderflowException | IllegalArgumentException exception) {
+            throw new IOException("Chunk data is truncated", exception);
+        }
+    }
+
+    /**
+     * Records where each frame starts from the frame table, nothing is decompressed.
+     * @throws IOException If the table doesn't match the chunk bitmap or the frames.
+     */
+    private void indexFrames(int[] compressedSizes, int[] uncompressedSizes) throws IOException {
+        if (compressedSizes.length != chunks.cardinality() || uncompressedSizes.length != compressedSizes.length) {
+            throw new IOException("Frame table doesn't match the chunk bitmap");
+        }
 
+        int offset = chunkData.position(),
+            frame = 0;
+
+        for (int index = chunks.nextSetBit(0); index >= 0; index = chunks.nextSetBit(index + 1), frame++) {
             int x = index % width + minX,
                 z = index / width + minZ;
 
+            long hash = LongHash.toLong(x, z);
+
+            chunkOffsets.put(hash, offset);
+            chunkLengths.put(hash, compressedSizes[frame]);
+            frameSizes.put(hash, uncompressedSizes[frame]);
+
+            offset += compressedSizes[frame];
+        }
+
+        if (offset > chunkData.limit()) {
+            throw new IOException("Chunk frames are truncated");
+        }
+    }
+
+    /**
+     * Splits entities and tiles by the chunk they belong to.
+     */
+    private void indexEntities() {
+        for (int index = 0; index < entities.size(); index++) {
+            NBTTagCompound entity = entities.get(index);
+
+            NBTTagList position = entity.getList("Pos", 6);
+
+            int x = MathHelper.floor(position.d(0)),
+                z = MathHelper.floor(position.d(2));
+
+            bucket(chunkEntities, x >> 4, z >> 4, entity);
+        }
+
+        for (int index = 0; index < tileEntities.size(); index++) {
+            NBTTagCompound tile = tileEntities.get(index);
+
+            bucket(chunkTiles, tile.getInt("x") >> 4, tile.getInt("z") >> 4, tile);
+        }
+    }
+
+    private void bucket(TLongObjectHashMap<List<NBTTagCompound>> target, int x, int z, NBTTagCompound compound) {
+        long hash = LongHash.toLong(x, z);
+
+        // Nobody would be able to load it anyway
+        if (!chunkOffsets.containsKey(hash) && !journalChunks.containsKey(hash)) {
+            return;
+        }
+
+        List<NBTTagCompound> list = target.get(hash);
+
+        if (list == null) {
+            target.put(hash, list = new LinkedList<>());
+        }
+
+        list.add(compound);
+    }
+
+    private void skip(ByteBuffer buffer, int length) {
+        buffer.position(buffer.position() + length);
+    }
+
+    private byte[] copy(ByteBuffer buffer, int start, int end) {
+        ByteBuffer range = buffer.duplicate();
+
+        range.position(start);
+        range.limit(end);
+
+        byte[] bytes = new byte[end - start];
+
+        range.get(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * @return The keys of every chunk stored in this file, see {@link LongHash#toLong(int, int)}.
+     */
+    public long[] getChunkKeys() {
+        if (journalChunks.isEmpty()) {
+            return chunkOffsets.keys();
+        }
+
+        TLongHashSet keys = new TLongHashSet(chunkOffsets.keys());
+
+        keys.addAll(journalChunks.keys());
+
+        return keys.toArray();
+    }
+
+    public boolean hasChunk(int x, int z) {
+        long hash = LongHash.toLong(x, z);
+
+        return chunkOffsets.containsKey(hash) || journalChunks.containsKey(hash);
+    }
+
+    /**
+     * Replaces a chunk by the one replayed from the journal, it may not exist in the file.
+     * @param body The uncompressed chunk, with every section inline.
+     * @param tiles Every tile entity of the chunk.
+     * @param entities Every entity of the chunk, or null to keep the ones of the file.
+     * @throws IllegalStateException If the file is sealed.
+     */
+    public void replaceChunk(int x, int z, @NotNull ByteBuffer body, @NotNull List<NBTTagCompound> tiles, @Nullable List<NBTTagCompound> entities) {
+        checkNotSealed();
+
+        long hash = LongHash.toLong(x, z);
+
+        journalChunks.put(hash, body);
+        chunkTiles.put(hash, new LinkedList<>(tiles));
+
+        if (entities != null) {
+            chunkEntities.put(hash, new LinkedList<>(entities));
+        }
+    }
+
+    /**
+     * Replaces the extra data and the maps by the ones replayed from the journal.
+     * @throws IllegalStateException If the file is sealed.
+     */
+    public void replaceWorldData(@NotNull NBTTagCompound extraData, @NotNull NBTTagCompound mapData) {
+        checkNotSealed();
+
+        this.extraData = extraData;
+        this.mapData = mapData;
+    }
+
+    /**
+     * Makes the file read-only, nothing can be replayed over it anymore.
+     */
+    public void seal() {
+        sealed = true;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    private void checkNotSealed() {
+        if (sealed) {
+            throw new IllegalStateException("Slime file is sealed");
+        }
+    }
+
+    /**
+     * Retrieve the still encoded bytes of a single chunk, without its tiles and entities.
+     * Framed files decompress the chunk frame into a new buffer.
+     * Chunks replayed from the journal are always in the current revision.
+     * @param x The chunk x.
+     * @param z The chunk z.
+     * @return A read-only view of the chunk, or null if the file doesn't contain it.
+     * @throws IOException If the chunk frame can't be decompressed.
+     */
+    @Nullable
+    public ByteBuffer getRawChunk(int x, int z) throws IOException {
+        long hash = LongHash.toLong(x, z);
+
+        ByteBuffer journalChunk = journalChunks.get(hash);
+
+        if (journalChunk != null) {
+            return journalChunk.asReadOnlyBuffer();
+        }
+
+        if (!chunkOffsets.containsKey(hash)) {
+            return null;
+        }
+
+        if (frameDecompressor == null) {
+            return slice(hash).asReadOnlyBuffer();
+        }
+
+        int size = frameSizes.get(hash);
+
+        ByteBuffer target = chunkData.isDirect() ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+
+        frameDecompressor.decompress(slice(hash), target);
+
+        target.flip();
+
+        return target.asReadOnlyBuffer();
+    }
+
+    private ByteBuffer slice(long hash) {
+        ByteBuffer slice = chunkData.duplicate();
+
+        slice.position(chunkOffsets.get(hash));
+        slice.limit(slice.position() + chunkLengths.get(hash));
+
+        return slice.slice();
+    }
+
+    /**
+     * Retrieve a chunk as its frame was written, so a save can copy the frame instead of encoding the chunk again.
+     * Only frames of the current revision qualify, chunks replayed from the journal never do.
+     * @param x The chunk x.
+     * @param z The chunk z.
+     * @return The chunk, or null if the file doesn't contain it or its frame can't be copied.
+     * @throws IOException If the chunk frame can't be decompressed or is malformed.
+     */
+    @Nullable
+    public EncodedChunk getEncodedChunk(int x, int z) throws IOException {
+        long hash = LongHash.toLong(x, z);
+
+        if (frameDecompressor == null || slimeVersion != CURRENT_SLIME_VERSION
+            || journalChunks.containsKey(hash) || !chunkOffsets.containsKey(hash)) {
+            return null;
+        }
+
+        ByteBuffer frame = slice(hash);
+        ByteBuffer input = SlimeBufferPool.acquire(frameSizes.get(hash), chunkData.isDirect());
+
+        try {
+            frameDecompressor.decompress(frame.duplicate(), input);
+
+            input.flip();
+
             int[] heightMap = new int[HEIGHTMAP_SIZE];
 
-            for (int i = 0; i < HEIGHTMAP_SIZE; i++) {
-                heightMap[i] = input.readInt();
-            }
+            input.asIntBuffer()
+                .get(heightMap);
+
+            skip(input, HEIGHTMAP_SIZE * 4);
 
-            byte[] biomeData = new byte[BIOME_SIZE];
+            byte[] biomeIds = new byte[BIOME_SIZE];
 
-            input.readFully(biomeData);
+            input.get(biomeIds);
 
             byte[] sections = new byte[SECTION_PER_CHUNK / 8];
 
-            input.readFully(sections);
+            input.get(sections);
 
             BitSet populatedSections = BitSet.valueOf(sections);
-            ChunkSection[] chunkSections = new ChunkSection[SECTION_PER_CHUNK];
 
-            for (int sectionIndex = 0; sectionIndex <= SECTION_PER_CHUNK; sectionIndex++) {
+            byte[][] sectionBodies = new byte[SECTION_PER_CHUNK][];
+            int[] references = new int[SECTION_PER_CHUNK];
+
+            Arrays.fill(references, -1);
+
+            for (int sectionIndex = 0; sectionIndex < SECTION_PER_CHUNK; sectionIndex++) {
                 if (!populatedSections.get(sectionIndex)) {
                     continue;
                 }
 
-                byte[] blockLight = new byte[NIBBLE_ARRAY_SIZE];
+                byte storage = input.get();
 
-                // Has block light
-                if (input.readBoolean()) {
-                    input.readFully(blockLight);
+                if (storage == SlimeSectionCodec.SHARED_SECTION) {
+                    int sharedIndex = input.getInt();
+
+                    if (sharedIndex < 0 || sharedIndex >= sharedBodies.length) {
+                        throw new IOException("Shared section " + sharedIndex + " out of bounds");
+                    }
+
+                    sectionBodies[sectionIndex] = sharedBodies[sharedIndex];
+                    references[sectionIndex] = sharedIndex;
+                    continue;
                 }
 
-                byte[] blockLength = new byte[BLOCK_DATA_SIZE];
+                if (storage != SlimeSectionCodec.INLINE_SECTION) {
+                    throw new IOException("Unknown section storage " + storage);
+                }
 
-                input.readFully(blockLength);
+                int start = input.position();
 
-                byte[] blockData = new byte[NIBBLE_ARRAY_SIZE];
+                // Only walked over to find where the body ends
+                readSection(input, sectionIndex, slimeVersion);
 
-                input.readFully(blockData);
+                sectionBodies[sectionIndex] = copy(input, start, input.position());
+            }
 
-                byte[] skyLight = new byte[NIBBLE_ARRAY_SIZE];
+            byte[] frameBytes = new byte[frame.remaining()];
 
-                // Has sky light
-                if (input.readBoolean()) {
-                    input.readFully(skyLight);
-                }
+            frame.get(frameBytes);
 
-                ChunkSection chunkSection = new ChunkSection(sectionIndex << 4, true);
+            // Whatever level wrote the file is kept, the frame is only compressed again if its references move
+            return new EncodedChunk(
+                heightMap,
+                biomeIds,
+                sectionBodies,
+                references,
+                dictionaryId,
+                Integer.MAX_VALUE,
+                Integer.MAX_VALUE,
+                frameBytes,
+                frameSizes.get(hash)
+            );
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Chunk " + x + ", " + z + " is truncated", exception);
+        } finally {
+            SlimeBufferPool.release(input);
+        }
+    }
 
-                chunkSection.a(
-                    new NibbleArray(blockLight)
-                );
-                chunkSection.b(
-                    new NibbleArray(skyLight)
-                );
+    /**
+     * @return The still encoded body of every shared section, in the order chunk frames point to them.
+     */
+    @NotNull
+    public List<ByteBuffer> getSharedBodies() {
+        List<ByteBuffer> bodies = new ArrayList<>(sharedBodies.length);
 
-                SlimeReaderUtil.readBlockIds(chunkSection.getIdArray(), blockLength, new NibbleArray(blockData));
+        for (byte[] body : sharedBodies) {
+            bodies.add(ByteBuffer.wrap(body));
+        }
 
-                chunkSection.recalcBlockCounts();
+        return bodies;
+    }
 
-                chunkSections[sectionIndex] = chunkSection;
-            }
+    /**
+     * Thanks for SlimeWorldManager && hugmanrique!
+     * Decodes a single chunk into a {@link ProtoSlimeChunk} object.
+     * @param x The chunk x.
+     * @param z The chunk z.
+     * @return The chunk, or null if the file doesn't contain it.
+     * @throws IOException If an error occurs while reading the file.
+     */
+    @Nullable
+    public ProtoSlimeChunk getProtoChunk(int x, int z) throws IOException {
+        long hash = LongHash.toLong(x, z);
 
-            ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(
-                x,
-                z,
-                chunkSections,
-                heightMap,
-                biomeData
-            );
+        ByteBuffer journalChunk = journalChunks.get(hash);
 
-            protoChunks.put(LongHash.toLong(x, z), protoChunk);
+        if (journalChunk != null) {
+            try {
+                return decodeChunk(x, z, journalChunk.duplicate(), CURRENT_SLIME_VERSION, chunkTiles.get(hash), chunkEntities.get(hash));
+            } catch (BufferUnderflowException exception) {
+                throw new IOException("Journaled chunk " + x + ", " + z + " is truncated", exception);
+            }
         }
 
-        if (!entities.isEmpty()) {
-            for (int index = 0; index < entities.size(); index++) {
-                NBTTagCompound entity = entities.get(index);
+        if (!chunkOffsets.containsKey(hash)) {
+            return null;
+        }
 
-                NBTTagList position = entity.getList("Pos", 6);
+        ByteBuffer input;
 
-                int x = (int) position.d(0),
-                    z = (int) position.d(1);
+        if (frameDecompressor == null) {
+            input = slice(hash);
+        } else {
+            // Only lives until the sections are copied out of it
+            input = SlimeBufferPool.acquire(frameSizes.get(hash), chunkData.isDirect());
 
-                ProtoSlimeChunk protoChunk = protoChunks.get(LongHash.toLong(x >> 4, z >> 4));
+            try {
+                frameDecompressor.decompress(slice(hash), input);
+            } catch (IOException exception) {
+                SlimeBufferPool.release(input);
 
-                if (protoChunk != null) {
-                    protoChunk.addEntity(entity);
-                }
+                throw exception;
             }
+
+            input.flip();
+        }
+
+        try {
+            return decodeChunk(x, z, input, slimeVersion, chunkTiles.get(hash), chunkEntities.get(hash));
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Chunk " + x + ", " + z + " is truncated", exception);
+        } finally {
+            if (frameDecompressor != null) {
+                SlimeBufferPool.release(input);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #getProtoChunk(int, int)}, but without blocks only the tiles and entities are copied,
+     * like a chunk captured without its blocks.
+     * @param withBlocks If the sections, height map and biomes should be decoded.
+     * @return The chunk, or null if the file doesn't contain it.
+     * @throws IOException If an error occurs while reading the file.
+     */
+    @Nullable
+    public ProtoSlimeChunk getProtoChunk(int x, int z, boolean withBlocks) throws IOException {
+        if (withBlocks) {
+            return getProtoChunk(x, z);
+        }
+
+        if (!hasChunk(x, z)) {
+            return null;
+        }
+
+        long hash = LongHash.toLong(x, z);
+
+        ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(x, z, null, null, null);
+
+        addEntities(protoChunk, chunkTiles.get(hash), chunkEntities.get(hash));
+
+        return protoChunk;
+    }
+
+    /**
+     * Decodes a chunk stored outside of this file, in the current revision with every section inline like the journaled ones.
+     * @param body The uncompressed chunk.
+     * @param tiles Every tile entity of the chunk.
+     * @param entities Every entity of the chunk, or null if none was stored.
+     * @return The chunk.
+     * @throws IOException If the chunk is truncated or malformed.
+     */
+    @NotNull
+    public ProtoSlimeChunk decodeChunk(int x, int z, @NotNull ByteBuffer body, @NotNull List<NBTTagCompound> tiles, @Nullable List<NBTTagCompound> entities) throws IOException {
+        try {
+            return decodeChunk(x, z, body.duplicate(), CURRENT_SLIME_VERSION, tiles, entities);
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Stored chunk " + x + ", " + z + " is truncated", exception);
         }
+    }
+
+    private ProtoSlimeChunk decodeChunk(int x, int z, ByteBuffer input, byte version, List<NBTTagCompound> tiles, List<NBTTagCompound> entities) throws IOException {
+        int[] heightMap = new int[HEIGHTMAP_SIZE];
+
+        input.asIntBuffer()
+            .get(heightMap);
 
-        if(!tileEntities.isEmpty()) {
-            for (int index = 0; index < tileEntities.size(); index++) {
-                NBTTagCompound tile = tileEntities.get(index);
+        skip(input, HEIGHTMAP_SIZE * 4);
 
-                int x = tile.getInt("x"),
-                    z = tile.getInt("z");
+        byte[] biomeData = new byte[BIOME_SIZE];
 
-                ProtoSlimeChunk protoChunk = protoChunks.get(LongHash.toLong(x >> 4, z >> 4));
+        input.get(biomeData);
 
-                if (protoChunk != null) {
-                    protoChunk.addTileEntity(tile);
+        byte[] sections = new byte[SECTION_PER_CHUNK / 8];
+
+        input.get(sections);
+
+        BitSet populatedSections = BitSet.valueOf(sections);
+        ProtoSlimeSection[] chunkSections = new ProtoSlimeSection[SECTION_PER_CHUNK];
+
+        for (int sectionIndex = 0; sectionIndex < SECTION_PER_CHUNK; sectionIndex++) {
+            if (!populatedSections.get(sectionIndex)) {
+                continue;
+            }
+
+            if (version >= SHARED_SECTIONS_SLIME_VERSION) {
+                byte storage = input.get();
+
+                if (storage == SlimeSectionCodec.SHARED_SECTION) {
+                    int sharedIndex = input.getInt();
+
+                    if (sharedIndex < 0 || sharedIndex >= sharedSections.length) {
+                        throw new IOException("Shared section " + sharedIndex + " out of bounds");
+                    }
+
+                    chunkSections[sectionIndex] = sharedSections[sharedIndex].withY(sectionIndex);
+                    continue;
+                }
+
+                if (storage != SlimeSectionCodec.INLINE_SECTION) {
+                    throw new IOException("Unknown section storage " + storage);
                 }
             }
+
+            chunkSections[sectionIndex] = readSection(input, sectionIndex, version);
+        }
+
+        ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(
+            x,
+            z,
+            chunkSections,
+            heightMap,
+            biomeData
+        );
+
+        addEntities(protoChunk, tiles, entities);
+
+        return protoChunk;
+    }
+
+    private void addEntities(ProtoSlimeChunk protoChunk, List<NBTTagCompound> tiles, List<NBTTagCompound> entities) {
+        if (tiles != null) {
+            tiles.forEach(protoChunk::addTileEntity);
+        }
+
+        if (entities != null) {
+            entities.forEach(protoChunk::addEntity);
+        }
+    }
+
+    private ProtoSlimeSection readSection(ByteBuffer input, int y, byte version) throws IOException {
+        byte[] blockLight = SlimeSectionCodec.readLight(input);
+
+        char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+        if (version >= PALETTE_SLIME_VERSION) {
+            SlimeSectionCodec.read(input, blockIds);
+        } else {
+            byte[] blockLength = new byte[BLOCK_DATA_SIZE];
+
+            input.get(blockLength);
+
+            byte[] blockData = new byte[NIBBLE_ARRAY_SIZE];
+
+            input.get(blockData);
+
+            SlimeReaderUtil.readBlockIds(blockIds, blockLength, blockData);
         }
 
-        return protoChunks;
+        byte[] skyLight = SlimeSectionCodec.readLight(input);
+
+        return new ProtoSlimeSection(y, blockIds, blockLight, skyLight);
     }
 
+    /**
+     * Decodes every section shared by back-references only once, chunks then reuse their arrays.
+     * @throws IOException If the block is truncated or invalid.
+     */
+    private void readSharedSections(ByteBuffer input) throws IOException {
+        try {
+            int count = input.getInt();
+
+            if (count < 0) {
+                throw new IOException("Invalid shared section count " + count);
+            }
+
+            ProtoSlimeSection[] sections = new ProtoSlimeSection[count];
+            byte[][] bodies = new byte[count][];
+
+            for (int index = 0; index < count; index++) {
+                int start = input.position();
+
+                sections[index] = readSection(input, 0, slimeVersion);
+                bodies[index] = copy(input, start, input.position());
+            }
+
+            sharedSections = sections;
+            sharedBodies = bodies;
+        } catch (BufferUnderflowException exception) {
+            throw new IOException("Shared sections are truncated", exception);
+        }
+    }
 
-    public byte[] getChunkData() {
-        return chunkData;
+    public ByteBuffer getChunkData() {
+        return chunkData.asReadOnlyBuffer();
     }
 
     public BitSet getChunks() {
@@ -232,10 +800,22 @@ public class ProtoSlimeFile {
         return width;
     }
 
+    public byte getSlimeVersion() {
+        return slimeVersion;
+    }
+
     public WorldVersion getWorldVersion() {
         return worldVersion;
     }
 
+    public NBTTagList getTileEntities() {
+        return tileEntities;
+    }
+
+    public NBTTagList getEntities() {
+        return entities;
+    }
+
     public NBTTagCompound getWorldMaps() {
         return mapData;
     }
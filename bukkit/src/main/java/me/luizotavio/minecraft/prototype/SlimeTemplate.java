@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.prototype;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A parsed world shared by every instance of it, see {@link SlimeTemplateCache}.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeTemplate {
+
+    private final ProtoSlimeFile file;
+    private final long hash;
+
+    private final TLongObjectHashMap<ProtoSlimeChunk> decodedChunks = new TLongObjectHashMap<>();
+
+    private final long fileSize;
+    private volatile long memoryUsage;
+    private volatile long memoryLimit;
+
+    /**
+     * @param file The parsed file, with its journal already replayed.
+     * @param hash The content hash of the file and its journal, see {@link SlimeTemplateCache#hash}.
+     * @param memoryLimit How much memory the template may use, chunks decoded past it aren't kept.
+     */
+    public SlimeTemplate(@NotNull ProtoSlimeFile file, long hash, long memoryLimit) {
+        this.file = file;
+        this.hash = hash;
+        this.memoryLimit = memoryLimit;
+
+        // Direct and mapped buffers are counted too, they are held as long as the template
+        this.fileSize = file.getChunkData().capacity();
+        this.memoryUsage = fileSize;
+    }
+
+    /**
+     * Same as {@link ProtoSlimeFile#getProtoChunk(int, int)}, but the chunk is only decoded once.
+     * @return The shared chunk, or null if the file doesn't contain it.
+     * @throws IOException If an error occurs while reading the file.
+     */
+    @Nullable
+    public ProtoSlimeChunk getProtoChunk(int x, int z) throws IOException {
+        long key = LongHash.toLong(x, z);
+
+        synchronized (decodedChunks) {
+            ProtoSlimeChunk decoded = decodedChunks.get(key);
+
+            if (decoded != null) {
+                return decoded;
+            }
+        }
+
+        // Decoded outside the lock, a chunk decoded twice at once is only kept once
+        ProtoSlimeChunk chunk = file.getProtoChunk(x, z);
+
+        if (chunk == null) {
+            return null;
+        }
+
+        long size = estimate(chunk);
+
+        synchronized (decodedChunks) {
+            ProtoSlimeChunk decoded = decodedChunks.get(key);
+
+            if (decoded != null) {
+                return decoded;
+            }
+
+            if (memoryUsage + size <= memoryLimit) {
+                decodedChunks.put(key, chunk);
+                memoryUsage += size;
+            }
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Releases every decoded chunk and stops keeping new ones, instances still using it keep working.
+     */
+    void release() {
+        synchronized (decodedChunks) {
+            memoryLimit = 0;
+            decodedChunks.clear();
+            memoryUsage = fileSize;
+        }
+    }
+
+    @NotNull
+    public ProtoSlimeFile getFile() {
+        return file;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return How many chunks are kept decoded.
+     */
+    public int getDecodedChunkCount() {
+        synchronized (decodedChunks) {
+            return decodedChunks.size();
+        }
+    }
+
+    /**
+     * @return Roughly how many bytes the file and the decoded chunks use, on or off the heap.
+     */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Only counts the arrays, shared sections are counted once per chunk using them.
+     */
+    private static long estimate(@NotNull ProtoSlimeChunk chunk) {
+        long size = chunk.getHeightMap().length * 4L + chunk.getBiomeIds().length;
+
+        for (ProtoSlimeSection section : chunk.getSections()) {
+            if (section == null) {
+                continue;
+            }
+
+            size += section.getBlockIds().length * 2L;
+
+            if (section.getBlockLight() != null) {
+                size += section.getBlockLight().length;
+            }
+
+            if (section.getSkyLight() != null) {
+                size += section.getSkyLight().length;
+            }
+        }
+
+        return size;
+    }
+}
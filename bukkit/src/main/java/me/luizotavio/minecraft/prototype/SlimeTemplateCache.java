@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.prototype;
+
+import me.luizotavio.minecraft.codec.ContentDigest;
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the parsed files of worlds initialized over and over, like minigame maps.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeTemplateCache {
+
+    public static final int DEFAULT_CAPACITY = 8;
+    public static final long DEFAULT_MEMORY_LIMIT = 256L * 1024 * 1024;
+
+    private final LinkedHashMap<String, Entry> templates = new LinkedHashMap<>(16, 0.75F, true);
+
+    private int capacity = DEFAULT_CAPACITY;
+    private long memoryLimit = DEFAULT_MEMORY_LIMIT;
+
+    /**
+     * @param name The world name.
+     * @param version The version the world is read as.
+     * @param hash The content hash of the world, see {@link #hash(ByteBuffer, ByteBuffer)}.
+     * @return The template, or null if none matches the content of the world.
+     */
+    @Nullable
+    public synchronized SlimeTemplate get(@NotNull String name, @NotNull WorldVersion version, long hash) {
+        Entry entry = templates.get(name);
+
+        if (entry == null || entry.version != version || entry.template.getHash() != hash) {
+            SlimeMetrics.increment(SlimeMetric.TEMPLATE_CACHE_MISSES);
+            return null;
+        }
+
+        SlimeMetrics.increment(SlimeMetric.TEMPLATE_CACHE_HITS);
+
+        return entry.template;
+    }
+
+    /**
+     * Creates the template of a parsed file and keeps it, replacing the one of an older content.
+     * @param name The world name.
+     * @param version The version the world was read as.
+     * @param hash The content hash of the world, see {@link #hash(ByteBuffer, ByteBuffer)}.
+     * @param file The parsed file, it's sealed as it's shared from now on.
+     * @return The template, even if it was evicted right away.
+     */
+    @NotNull
+    public synchronized SlimeTemplate put(@NotNull String name, @NotNull WorldVersion version, long hash, @NotNull ProtoSlimeFile file) {
+        file.seal();
+
+        SlimeTemplate template = new SlimeTemplate(file, hash, memoryLimit);
+
+        Entry previous = templates.put(name, new Entry(version, template));
+
+        if (previous != null) {
+            previous.template.release();
+        }
+
+        evict();
+
+        return template;
+    }
+
+    /**
+     * Drops the template of a world, the next instance parses it again.
+     * @param name The world name.
+     */
+    public synchronized void invalidate(@NotNull String name) {
+        Entry entry = templates.remove(name);
+
+        if (entry != null) {
+            entry.template.release();
+        }
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : templates.values()) {
+            entry.template.release();
+        }
+
+        templates.clear();
+    }
+
+    private void evict() {
+        long memoryUsage = getMemoryUsage();
+
+        Iterator<Entry> iterator = templates.values().iterator();
+
+        while (iterator.hasNext() && (templates.size() > capacity || memoryUsage > memoryLimit)) {
+            Entry eldest = iterator.next();
+
+            memoryUsage -= eldest.template.getMemoryUsage();
+
+            iterator.remove();
+            eldest.template.release();
+
+            SlimeMetrics.increment(SlimeMetric.TEMPLATE_CACHE_EVICTIONS);
+        }
+    }
+
+    public synchronized int size() {
+        return templates.size();
+    }
+
+    /**
+     * @return Roughly how many bytes every template uses, on or off the heap.
+     */
+    public synchronized long getMemoryUsage() {
+        long memoryUsage = 0;
+
+        for (Entry entry : templates.values()) {
+            memoryUsage += entry.template.getMemoryUsage();
+        }
+
+        return memoryUsage;
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity How many templates are kept, 0 to keep none.
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = Math.max(0, capacity);
+
+        evict();
+    }
+
+    public synchronized long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Only applies to templates created from now on, kept ones are evicted once the total exceeds it.
+     * @param memoryLimit How many bytes the templates may use.
+     */
+    public synchronized void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = Math.max(0, memoryLimit);
+
+        evict();
+    }
+
+    /**
+     * Hashes the data and the journal of a world as they were loaded,
+     * it's far cheaper than decompressing and parsing them again.
+     * @param data The data of the world.
+     * @param journal The journal of the world, or null if it has none.
+     * @return The content hash.
+     */
+    public static long hash(@NotNull ByteBuffer data, @Nullable ByteBuffer journal) {
+        ContentDigest digest = new ContentDigest();
+
+        digest.update(data);
+
+        // The same bytes split differently between data and journal must not hash the same
+        long hash = digest.getValue() * 31 + data.remaining();
+
+        if (journal != null) {
+            digest.update(journal);
+
+            hash = (hash * 31 + digest.getValue()) * 31 + journal.remaining();
+        }
+
+        return hash;
+    }
+
+    private static final class Entry {
+
+        private final WorldVersion version;
+        private final SlimeTemplate template;
+
+        private Entry(WorldVersion version, SlimeTemplate template) {
+            this.version = version;
+            this.template = template;
+        }
+    }
+}
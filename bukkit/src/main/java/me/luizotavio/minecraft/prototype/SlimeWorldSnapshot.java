@@ -0,0 +1,487 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.prototype;
+
+import de.tr7zw.nbtapi.NBTContainer;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import me.luizotavio.minecraft.codec.EncodedChunkCache;
+import me.luizotavio.minecraft.codec.EncodedChunkCache.EncodedChunk;
+import me.luizotavio.minecraft.codec.SlimeChunkStore;
+import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.common.data.AbstractSlimeData;
+import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
+import me.luizotavio.minecraft.common.exception.InternalSlimeException;
+import me.luizotavio.minecraft.common.settings.factory.SettingsPropertyFactory;
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import me.luizotavio.minecraft.data.container.BukkitSlimePersistentContainer;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
+import net.minecraft.server.v1_8_R3.*;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_8_R3.CraftWorld;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.SUPPORTED_VERSION;
+
+/**
+ * Everything a save writes, copied out of a live world on the main thread.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeWorldSnapshot {
+
+    private final WorldVersion worldVersion;
+
+    private final int dictionaryId;
+    private final byte[] dictionary;
+
+    private volatile List<ProtoSlimeChunk> chunks;
+    private final boolean hasEntities, trimEmpty, sharedSections, legacyFormat;
+
+    // Chunks NMS no longer holds, only decoded by resolve() so the main thread never pays for it
+    private ReleasedChunks releasedChunks;
+
+    private final NBTTagCompound extraData, mapData;
+
+    private final EncodedChunkCache chunkCache;
+
+    // Entries claimed while capturing or copied from the file by resolve(), held here so the cache can drop them before the save runs
+    private final TLongObjectHashMap<EncodedChunk> claimedChunks;
+    private final long generation;
+
+    public SlimeWorldSnapshot(
+        @NotNull WorldVersion worldVersion,
+        int dictionaryId,
+        byte[] dictionary,
+        @NotNull List<ProtoSlimeChunk> chunks,
+        boolean hasEntities,
+        boolean trimEmpty,
+        @NotNull NBTTagCompound extraData,
+        @NotNull NBTTagCompound mapData,
+        @Nullable EncodedChunkCache chunkCache
+    ) {
+        this(worldVersion, dictionaryId, dictionary, chunks, hasEntities, trimEmpty, true, false, extraData, mapData, chunkCache);
+    }
+
+    /**
+     * @param sharedSections If identical sections and constant light arrays can be written once, see {@link #isSharedSections()}.
+     * @param legacyFormat If the snapshot should be written in the legacy revision, see {@link #isLegacyFormat()}.
+     */
+    public SlimeWorldSnapshot(
+        @NotNull WorldVersion worldVersion,
+        int dictionaryId,
+        byte[] dictionary,
+        @NotNull List<ProtoSlimeChunk> chunks,
+        boolean hasEntities,
+        boolean trimEmpty,
+        boolean sharedSections,
+        boolean legacyFormat,
+        @NotNull NBTTagCompound extraData,
+        @NotNull NBTTagCompound mapData,
+        @Nullable EncodedChunkCache chunkCache
+    ) {
+        this(worldVersion, dictionaryId, dictionary, chunks, hasEntities, trimEmpty, sharedSections, legacyFormat, extraData, mapData, chunkCache, new TLongObjectHashMap<>(), 0, null);
+    }
+
+    private SlimeWorldSnapshot(
+        @NotNull WorldVersion worldVersion,
+        int dictionaryId,
+        byte[] dictionary,
+        @NotNull List<ProtoSlimeChunk> chunks,
+        boolean hasEntities,
+        boolean trimEmpty,
+        boolean sharedSections,
+        boolean legacyFormat,
+        @NotNull NBTTagCompound extraData,
+        @NotNull NBTTagCompound mapData,
+        @Nullable EncodedChunkCache chunkCache,
+        @NotNull TLongObjectHashMap<EncodedChunk> claimedChunks,
+        long generation,
+        @Nullable ReleasedChunks releasedChunks
+    ) {
+        this.worldVersion = worldVersion;
+        this.dictionaryId = dictionaryId;
+        this.dictionary = dictionary;
+        this.chunks = Collections.unmodifiableList(chunks);
+        this.hasEntities = hasEntities;
+        this.trimEmpty = trimEmpty;
+        this.sharedSections = sharedSections;
+        this.legacyFormat = legacyFormat;
+        this.extraData = extraData;
+        this.mapData = mapData;
+        this.chunkCache = chunkCache;
+        this.claimedChunks = claimedChunks;
+        this.generation = generation;
+        this.releasedChunks = releasedChunks;
+    }
+
+    /**
+     * Copies the state of the world, must be called on the main thread.
+     * @param slimeWorld The world.
+     * @param dataRegistry The registry of extra data to serialize.
+     * @return The snapshot.
+     * @throws InternalSlimeException If the world isn't loaded or can't be saved.
+     */
+    @NotNull
+    public static SlimeWorldSnapshot capture(@NotNull SlimeWorld slimeWorld, @NotNull SlimeDataRegistry dataRegistry) throws InternalSlimeException {
+        if (slimeWorld.getVersion() != SUPPORTED_VERSION) {
+            throw new InternalSlimeException("Unsupported version");
+        }
+
+        World world = slimeWorld.getBukkitWorld();
+
+        if (world == null) {
+            throw new InternalSlimeException("World is null", null);
+        }
+
+        boolean legacyFormat = slimeWorld.hasProperty(SettingsPropertyFactory.LEGACY_FORMAT);
+
+        // The legacy revision has no dictionary
+        int dictionaryId = legacyFormat ? 0 : slimeWorld.getProperty(SettingsPropertyFactory.DICTIONARY_ID);
+        byte[] dictionary = null;
+
+        if (dictionaryId != 0) {
+            dictionary = slimeWorld.getKorld()
+                .getDictionaryRegistry()
+                .getDictionary(dictionaryId);
+
+            if (dictionary == null) {
+                throw new InternalSlimeException("Zstd dictionary " + dictionaryId + " isn't registered");
+            }
+        }
+
+        WorldServer nmsWorld = ((CraftWorld) world).getHandle();
+
+        boolean hasEntities = slimeWorld.hasProperty(SettingsPropertyFactory.HAS_ENTITIES);
+
+        SlimeChunkLoader chunkLoader = null;
+        EncodedChunkCache chunkCache = null;
+        long generation = 0;
+
+        if (nmsWorld.chunkProviderServer.chunkLoader instanceof SlimeChunkLoader) {
+            chunkLoader = (SlimeChunkLoader) nmsWorld.chunkProviderServer.chunkLoader;
+
+            // Nothing encoded in the current revision can be written into the legacy one, so every chunk keeps its blocks
+            if (!legacyFormat) {
+                chunkCache = chunkLoader.getChunkCache();
+                generation = chunkCache.nextGeneration();
+            }
+        }
+
+        List<ProtoSlimeChunk> chunks = new ArrayList<>(nmsWorld.chunkProviderServer.chunks.size());
+        TLongHashSet capturedKeys = new TLongHashSet();
+        TLongObjectHashMap<EncodedChunk> claimedChunks = new TLongObjectHashMap<>();
+
+        for (Chunk chunk : nmsWorld.chunkProviderServer.chunks.values()) {
+            chunks.add(capture(chunk, chunkCache, claimedChunks, hasEntities));
+            capturedKeys.add(LongHash.toLong(chunk.locX, chunk.locZ));
+        }
+
+        ReleasedChunks releasedChunks = null;
+
+        if (chunkLoader != null) {
+            for (Chunk chunk : chunkLoader.getUnloadedChunks()) {
+                chunks.add(capture(chunk, chunkCache, claimedChunks, hasEntities));
+                capturedKeys.add(LongHash.toLong(chunk.locX, chunk.locZ));
+            }
+
+            for (Chunk chunk : chunkLoader.getDetachedChunks(nmsWorld)) {
+                chunks.add(capture(chunk, chunkCache, claimedChunks, hasEntities));
+                capturedKeys.add(LongHash.toLong(chunk.locX, chunk.locZ));
+            }
+
+            ProtoSlimeFile file = chunkLoader.getProtoSlimeFile();
+            TLongObjectHashMap<byte[]> storedChunks = chunkLoader.getChunkStore().copy();
+
+            TLongHashSet releasedKeys = new TLongHashSet(file.getChunkKeys());
+
+            releasedKeys.addAll(storedChunks.keys());
+            releasedKeys.removeAll(capturedKeys.toArray());
+
+            long[] keys = releasedKeys.toArray();
+            boolean[] reusable = new boolean[keys.length];
+
+            for (int index = 0; index < keys.length; index++) {
+                EncodedChunk claimed = chunkCache == null ? null : chunkCache.claim(LongHash.msw(keys[index]), LongHash.lsw(keys[index]));
+
+                if (claimed != null) {
+                    claimedChunks.put(keys[index], claimed);
+                    reusable[index] = true;
+                }
+            }
+
+            releasedChunks = new ReleasedChunks(file, storedChunks, keys, reusable, !legacyFormat);
+        }
+
+        NBTTagCompound extraCompound = new NBTTagCompound();
+
+        BukkitSlimePersistentContainer persistentContainer = new BukkitSlimePersistentContainer(
+            new NBTContainer(extraCompound)
+        );
+
+        for (AbstractSlimeData slimeData : dataRegistry.getRegistered()) {
+            slimeData.serialize(slimeWorld, persistentContainer);
+        }
+
+        NBTTagCompound mapCompound = new NBTTagCompound();
+        NBTTagList mapTagList = new NBTTagList();
+
+        PersistentCollection collection = nmsWorld.worldMaps;
+
+        for (Object o : collection.c) {
+            if (!(o instanceof WorldMap)) {
+                continue;
+            }
+
+            WorldMap worldMap = (WorldMap) o;
+
+            NBTTagCompound compound = new NBTTagCompound();
+
+            worldMap.b(compound);
+            // New id int tag
+            compound.setInt("id", worldMap.centerX << 12 | worldMap.centerZ << 12 | worldMap.scale);
+
+            mapTagList.add(compound);
+        }
+
+        mapCompound.set("maps", mapTagList);
+
+        return new SlimeWorldSnapshot(
+            slimeWorld.getVersion(),
+            dictionaryId,
+            dictionary,
+            chunks,
+            hasEntities,
+            slimeWorld.hasProperty(SettingsPropertyFactory.TRIM_EMPTY),
+            slimeWorld.getProperty(SettingsPropertyFactory.SHARED_SECTIONS),
+            legacyFormat,
+            extraCompound,
+            mapCompound,
+            chunkCache,
+            claimedChunks,
+            generation,
+            releasedChunks
+        );
+    }
+
+    private static ProtoSlimeChunk capture(
+        @NotNull Chunk chunk,
+        @Nullable EncodedChunkCache chunkCache,
+        @NotNull TLongObjectHashMap<EncodedChunk> claimedChunks,
+        boolean hasEntities
+    ) {
+        EncodedChunk claimed = chunkCache == null ? null : chunkCache.claim(chunk.locX, chunk.locZ);
+
+        // Chunks saved through the API didn't go through the loader yet, so their own flag is checked too
+        boolean reusable = claimed != null && !chunk.a(false);
+
+        if (reusable) {
+            claimedChunks.put(LongHash.toLong(chunk.locX, chunk.locZ), claimed);
+        }
+
+        return ProtoSlimeChunk.capture(chunk, hasEntities, !reusable);
+    }
+
+    /**
+     * Decodes the chunks NMS no longer held when the snapshot was captured, it must be called
+     * before reading the chunks and it's meant to run off the main thread.
+     * Chunks modified since the last save are decoded with their blocks, the others only with their tiles and entities.
+     * Unmodified chunks the cache doesn't hold keep the frame of the file they were loaded from when it can be copied.
+     * @throws IOException If a chunk can't be decoded.
+     */
+    public synchronized void resolve() throws IOException {
+        if (releasedChunks == null) {
+            return;
+        }
+
+        List<ProtoSlimeChunk> resolved = new ArrayList<>(chunks);
+
+        try {
+            releasedChunks.decode(resolved, claimedChunks);
+        } catch (IOException | RuntimeException exception) {
+            // Their dirty marks were already claimed, an older entry must not be spliced next time
+            releasedChunks.invalidate(chunkCache);
+
+            throw exception;
+        }
+
+        chunks = Collections.unmodifiableList(resolved);
+        releasedChunks = null;
+    }
+
+    public WorldVersion getWorldVersion() {
+        return worldVersion;
+    }
+
+    /**
+     * @return The id of the zstd dictionary to compress with, 0 if none.
+     */
+    public int getDictionaryId() {
+        return dictionaryId;
+    }
+
+    public byte[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return Every captured chunk, in no particular order.
+     * @throws IllegalStateException If the snapshot holds released chunks and wasn't resolved.
+     */
+    public List<ProtoSlimeChunk> getChunks() {
+        if (releasedChunks != null) {
+            throw new IllegalStateException("Snapshot wasn't resolved");
+        }
+
+        return chunks;
+    }
+
+    public boolean hasEntities() {
+        return hasEntities;
+    }
+
+    /**
+     * @return If air-only sections and empty chunks should be left out of the file.
+     */
+    public boolean isTrimEmpty() {
+        return trimEmpty;
+    }
+
+    /**
+     * @return If identical sections are written once and referenced, and constant light arrays collapsed into a nibble.
+     */
+    public boolean isSharedSections() {
+        return sharedSections;
+    }
+
+    /**
+     * @return If the snapshot should be written in the legacy revision, readable by older readers.
+     */
+    public boolean isLegacyFormat() {
+        return legacyFormat;
+    }
+
+    public NBTTagCompound getExtraData() {
+        return extraData;
+    }
+
+    public NBTTagCompound getMapData() {
+        return mapData;
+    }
+
+    /**
+     * @return The encoded chunks of the previous saves, null if the world doesn't keep them.
+     */
+    @Nullable
+    public EncodedChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * @param x The chunk X.
+     * @param z The chunk Z.
+     * @return The encoded chunk claimed for a chunk captured without its blocks, or null if none.
+     */
+    @Nullable
+    public EncodedChunk getClaimedChunk(int x, int z) {
+        return claimedChunks.get(LongHash.toLong(x, z));
+    }
+
+    /**
+     * @return The generation the chunks were claimed in, see {@link EncodedChunkCache#nextGeneration()}.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    private static final class ReleasedChunks {
+
+        private final ProtoSlimeFile file;
+        private final TLongObjectHashMap<byte[]> storedChunks;
+
+        private final long[] keys;
+        private final boolean[] reusable;
+
+        private final boolean copyFrames;
+
+        private ReleasedChunks(ProtoSlimeFile file, TLongObjectHashMap<byte[]> storedChunks, long[] keys, boolean[] reusable, boolean copyFrames) {
+            this.file = file;
+            this.storedChunks = storedChunks;
+            this.keys = keys;
+            this.reusable = reusable;
+            this.copyFrames = copyFrames;
+        }
+
+        private void decode(List<ProtoSlimeChunk> target, TLongObjectHashMap<EncodedChunk> claimedChunks) throws IOException {
+            for (int index = 0; index < keys.length; index++) {
+                int x = LongHash.msw(keys[index]),
+                    z = LongHash.lsw(keys[index]);
+
+                byte[] entry = storedChunks.get(keys[index]);
+                boolean withBlocks = !reusable[index];
+
+                // Nothing changed since the file was read, so its frame is written again as it is
+                if (copyFrames && entry == null && withBlocks) {
+                    EncodedChunk encoded = file.getEncodedChunk(x, z);
+
+                    if (encoded != null) {
+                        claimedChunks.put(keys[index], encoded);
+                        withBlocks = false;
+                    }
+                }
+
+                // Stored chunks are newer than the ones of the file
+                ProtoSlimeChunk chunk = entry != null
+                    ? SlimeChunkStore.decode(entry, file, withBlocks)
+                    : file.getProtoChunk(x, z, withBlocks);
+
+                if (chunk != null) {
+                    target.add(chunk);
+                }
+            }
+        }
+
+        private void invalidate(@Nullable EncodedChunkCache chunkCache) {
+            if (chunkCache == null) {
+                return;
+            }
+
+            for (int index = 0; index < keys.length; index++) {
+                if (!reusable[index]) {
+                    chunkCache.invalidate(LongHash.msw(keys[index]), LongHash.lsw(keys[index]));
+                }
+            }
+        }
+    }
+}
@@ -28,10 +28,13 @@ import net.minecraft.server.v1_8_R3.*;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
 
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.SECTION_PER_CHUNK;
+
 /**
  * @author Luiz Otávio de Farias Corrêa
  * @since 13/08/2022
@@ -40,7 +43,7 @@ public class ProtoSlimeChunk {
 
     private final int x, z;
 
-    private final ChunkSection[] chunkSections;
+    private final ProtoSlimeSection[] chunkSections;
 
     private final int[] heightMap;
     private final byte[] biomeIds;
@@ -48,10 +51,13 @@ public class ProtoSlimeChunk {
     private final List<NBTTagCompound> tileEntities = new LinkedList<>();
     private final List<NBTTagCompound> entities = new LinkedList<>();
 
+    // Kept once encoded, so hashing and writing the same snapshot encode every section only once
+    private volatile byte[][] sectionBodies;
+
     public ProtoSlimeChunk(
         int x,
         int z,
-        ChunkSection[] chunkSections,
+        ProtoSlimeSection[] chunkSections,
         int[] heightMap,
         byte[] biomeIndex
     ) {
@@ -62,6 +68,79 @@ public class ProtoSlimeChunk {
         this.biomeIds = biomeIndex;
     }
 
+    /**
+     * Copies the state of a live NMS chunk, so it must be called on the main thread.
+     * @param chunk The NMS chunk.
+     * @param withEntities If the entities should be copied as well.
+     * @return The chunk.
+     */
+    @NotNull
+    public static ProtoSlimeChunk capture(@NotNull Chunk chunk, boolean withEntities) {
+        return capture(chunk, withEntities, true);
+    }
+
+    /**
+     * Copies the state of a live NMS chunk, so it must be called on the main thread.
+     * @param chunk The NMS chunk.
+     * @param withEntities If the entities should be copied as well.
+     * @param withBlocks If the sections, height map and biomes should be copied,
+     *                   false when the writer already has them encoded.
+     * @return The chunk, it can't be transformed into a NMS chunk without blocks.
+     */
+    @NotNull
+    public static ProtoSlimeChunk capture(@NotNull Chunk chunk, boolean withEntities, boolean withBlocks) {
+        if (!withBlocks) {
+            ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(chunk.locX, chunk.locZ, null, null, null);
+
+            captureEntities(protoChunk, chunk, withEntities);
+
+            return protoChunk;
+        }
+
+        ChunkSection[] sections = chunk.getSections();
+        ProtoSlimeSection[] protoSections = new ProtoSlimeSection[SECTION_PER_CHUNK];
+
+        for (int index = 0; index < SECTION_PER_CHUNK && index < sections.length; index++) {
+            if (sections[index] != null) {
+                protoSections[index] = ProtoSlimeSection.capture(sections[index], index);
+            }
+        }
+
+        ProtoSlimeChunk protoChunk = new ProtoSlimeChunk(
+            chunk.locX,
+            chunk.locZ,
+            protoSections,
+            chunk.heightMap.clone(),
+            chunk.getBiomeIndex().clone()
+        );
+
+        captureEntities(protoChunk, chunk, withEntities);
+
+        return protoChunk;
+    }
+
+    private static void captureEntities(@NotNull ProtoSlimeChunk protoChunk, @NotNull Chunk chunk, boolean withEntities) {
+        for (TileEntity tileEntity : chunk.tileEntities.values()) {
+            NBTTagCompound compound = new NBTTagCompound();
+
+            tileEntity.b(compound);
+
+            protoChunk.addTileEntity(compound);
+        }
+
+        if (withEntities) {
+            for (List<Entity> entitySlice : chunk.getEntitySlices()) {
+                for (Entity entity : entitySlice) {
+                    NBTTagCompound compound = new NBTTagCompound();
+
+                    entity.e(compound);
+
+                    protoChunk.addEntity(compound);
+                }
+            }
+        }
+    }
+
     public void addTileEntity(NBTTagCompound tileEntity) {
         tileEntities.add(tileEntity);
     }
@@ -84,7 +163,7 @@ public class ProtoSlimeChunk {
         chunk.d(true); // TerrainPopulated
         chunk.e(true); // LightingPopulated
         chunk.c(0); // InhabitedTime
-        chunk.a(chunkSections);
+        chunk.a(toSections());
         chunk.a(biomeIds);
 
         for (NBTTagCompound tileEntity : tileEntities) {
@@ -125,4 +204,64 @@ public class ProtoSlimeChunk {
 
         return chunk;
     }
+
+    private ChunkSection[] toSections() {
+        ChunkSection[] sections = new ChunkSection[chunkSections.length];
+
+        for (int index = 0; index < chunkSections.length; index++) {
+            ProtoSlimeSection section = chunkSections[index];
+
+            if (section != null) {
+                sections[index] = section.toSection();
+            }
+        }
+
+        return sections;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * @return If the sections, height map and biomes were captured.
+     */
+    public boolean hasBlocks() {
+        return chunkSections != null;
+    }
+
+    public ProtoSlimeSection[] getSections() {
+        return chunkSections;
+    }
+
+    public int[] getHeightMap() {
+        return heightMap;
+    }
+
+    public byte[] getBiomeIds() {
+        return biomeIds;
+    }
+
+    /**
+     * @return The section bodies encoded for the snapshot holding this chunk, or null if not encoded yet.
+     */
+    public byte[][] getSectionBodies() {
+        return sectionBodies;
+    }
+
+    public void setSectionBodies(byte[][] sectionBodies) {
+        this.sectionBodies = sectionBodies;
+    }
+
+    public List<NBTTagCompound> getTileEntities() {
+        return Collections.unmodifiableList(tileEntities);
+    }
+
+    public List<NBTTagCompound> getEntities() {
+        return Collections.unmodifiableList(entities);
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.prototype.chunk;
+
+import net.minecraft.server.v1_8_R3.ChunkSection;
+import net.minecraft.server.v1_8_R3.NibbleArray;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decoded data of a chunk section, its arrays may be shared and must never be modified.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class ProtoSlimeSection {
+
+    private final int y;
+
+    private final char[] blockIds;
+    private final byte[] blockLight, skyLight;
+
+    public ProtoSlimeSection(
+        int y,
+        char[] blockIds,
+        byte[] blockLight,
+        byte[] skyLight
+    ) {
+        this.y = y;
+        this.blockIds = blockIds;
+        this.blockLight = blockLight;
+        this.skyLight = skyLight;
+    }
+
+    /**
+     * Copies the state of a live NMS section, so it must be called on the main thread.
+     * @param section The NMS section.
+     * @param y The section y.
+     * @return The section.
+     */
+    @NotNull
+    public static ProtoSlimeSection capture(@NotNull ChunkSection section, int y) {
+        NibbleArray blockLight = section.getEmittedLightArray(),
+            skyLight = section.getSkyLightArray();
+
+        return new ProtoSlimeSection(
+            y,
+            section.getIdArray().clone(),
+            blockLight == null ? null : blockLight.a().clone(),
+            skyLight == null ? null : skyLight.a().clone()
+        );
+    }
+
+    /**
+     * Creates the same section at another height, sharing every array with this one.
+     * @param y The section y.
+     * @return The section.
+     */
+    @NotNull
+    public ProtoSlimeSection withY(int y) {
+        return y == this.y ? this : new ProtoSlimeSection(y, blockIds, blockLight, skyLight);
+    }
+
+    /**
+     * Creates a fresh NMS section, the proto data is copied and never shared with it.
+     * @return The NMS chunk section.
+     */
+    @NotNull
+    public ChunkSection toSection() {
+        ChunkSection chunkSection = new ChunkSection(y << 4, true);
+
+        System.arraycopy(blockIds, 0, chunkSection.getIdArray(), 0, blockIds.length);
+
+        if (blockLight != null) {
+            chunkSection.a(
+                new NibbleArray(blockLight.clone())
+            );
+        }
+
+        if (skyLight != null) {
+            chunkSection.b(
+                new NibbleArray(skyLight.clone())
+            );
+        }
+
+        chunkSection.recalcBlockCounts();
+
+        return chunkSection;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public char[] getBlockIds() {
+        return blockIds;
+    }
+
+    @Nullable
+    public byte[] getBlockLight() {
+        return blockLight;
+    }
+
+    @Nullable
+    public byte[] getSkyLight() {
+        return skyLight;
+    }
+}
@@ -24,17 +24,28 @@
 
 package me.luizotavio.minecraft.strategy;
 
+import me.luizotavio.minecraft.codec.SlimeHeader;
+import me.luizotavio.minecraft.codec.SlimeProbe;
 import me.luizotavio.minecraft.common.SlimeWorld;
 import me.luizotavio.minecraft.common.data.registry.SlimeDataRegistry;
 import me.luizotavio.minecraft.common.exception.InternalSlimeException;
+import me.luizotavio.minecraft.common.strategy.SlimeDataWriter;
 import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
 import org.bukkit.plugin.Plugin;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -42,6 +53,11 @@ import java.nio.file.Path;
  */
 public class FileSlimeLoaderStrategy implements SlimeLoaderStrategy {
 
+    // Smaller files are cheaper to read into the heap, larger ones are read off-heap for direct decompression
+    private static final long DIRECT_THRESHOLD = 64 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     private final Plugin plugin;
     private final File folder;
 
@@ -82,26 +98,168 @@ public class FileSlimeLoaderStrategy implements SlimeLoaderStrategy {
         }
     }
 
+    @Override
+    public ByteBuffer loadBuffer(String name) throws InternalSlimeException {
+        File file = new File(folder, name + ".slime");
+
+        if (!file.exists()) {
+            throw new InternalSlimeException("Slime file not found: " + file.getAbsolutePath());
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size == 0) {
+                throw new InternalSlimeException("Slime file is empty: " + file.getAbsolutePath());
+            }
+
+            // Never mapped, a mapping would keep the file locked until collected and saves couldn't replace it
+            ByteBuffer buffer = size >= DIRECT_THRESHOLD
+                ? ByteBuffer.allocateDirect((int) size)
+                : ByteBuffer.allocate((int) size);
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new InternalSlimeException("Could not read all bytes from file: " + file.getAbsolutePath());
+            }
+
+            buffer.flip();
+
+            return buffer;
+        } catch (InternalSlimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error reading slime file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Reads only the header of the world and the sizes of its blocks, see {@link SlimeProbe}.
+     * @param name The name of the world.
+     * @return The header of the world.
+     * @throws InternalSlimeException If the world is not found or isn't a valid slime file.
+     */
+    public SlimeHeader probe(String name) throws InternalSlimeException {
+        File file = new File(folder, name + ".slime");
+
+        if (!file.exists()) {
+            throw new InternalSlimeException("Slime file not found: " + file.getAbsolutePath());
+        }
+
+        try {
+            return SlimeProbe.probe(file);
+        } catch (IOException e) {
+            throw new InternalSlimeException("Error reading slime file: " + file.getAbsolutePath(), e);
+        }
+    }
+
     @Override
     public void save(SlimeWorld slimeWorld, byte[] data) throws InternalSlimeException {
+        save(slimeWorld, out -> out.write(data));
+    }
+
+    @Override
+    public void save(SlimeWorld slimeWorld, SlimeDataWriter writer) throws InternalSlimeException {
         File file = new File(folder, slimeWorld.getName() + ".slime");
-        // Delete the file if it already exists
-        if (file.exists()) {
-            file.delete();
-        }
 
-        Path path = file.toPath();
+        // Written aside and moved over, so a crash never leaves a half written world behind
+        File temporary = new File(folder, slimeWorld.getName() + ".slime.tmp");
+
         try {
             Files.createDirectories(file.getParentFile().toPath());
-            Files.createFile(path);
         } catch (Exception e) {
             throw new InternalSlimeException("Error creating slime file: " + file.getAbsolutePath(), e);
         }
 
-        try (FileOutputStream outputStream = new FileOutputStream(file)) {
-            outputStream.write(data);
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+
+            writer.write(outputStream);
+
+            outputStream.flush();
+            channel.force(false);
         } catch (Exception e) {
+            temporary.delete();
+
             throw new InternalSlimeException("Error writing slime file: " + file.getAbsolutePath(), e);
         }
+
+        try {
+            move(temporary.toPath(), file.toPath());
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error replacing slime file: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public boolean supportsJournal() {
+        return true;
+    }
+
+    @Override
+    public ByteBuffer loadJournal(String name) throws InternalSlimeException {
+        File file = new File(folder, name + ".slime.journal");
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error reading slime journal: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void appendJournal(SlimeWorld slimeWorld, byte[] records) throws InternalSlimeException {
+        File file = new File(folder, slimeWorld.getName() + ".slime.journal");
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(channel, ByteBuffer.wrap(records));
+
+            channel.force(false);
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error appending to slime journal: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void resetJournal(SlimeWorld slimeWorld, byte[] header) throws InternalSlimeException {
+        File file = new File(folder, slimeWorld.getName() + ".slime.journal");
+        File temporary = new File(folder, slimeWorld.getName() + ".slime.journal.tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(header));
+
+            channel.force(false);
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error writing slime journal: " + file.getAbsolutePath(), e);
+        }
+
+        try {
+            move(temporary.toPath(), file.toPath());
+        } catch (Exception e) {
+            throw new InternalSlimeException("Error replacing slime journal: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 }
@@ -24,20 +24,18 @@
 
 package me.luizotavio.minecraft.world;
 
-import me.luizotavio.minecraft.codec.SlimeOutputStream;
+import me.luizotavio.minecraft.BukkitSlimeWorld;
 import me.luizotavio.minecraft.common.SlimeWorld;
-import me.luizotavio.minecraft.common.exception.InternalSlimeException;
-import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.settings.factory.SettingsPropertyFactory;
-import me.luizotavio.minecraft.common.strategy.SlimeLoaderStrategy;
 import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
 import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
+import me.luizotavio.minecraft.world.chunkprovider.SlimeChunkProviderServer;
 import net.minecraft.server.v1_8_R3.*;
-import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -50,8 +48,6 @@ public class CraftSlimeWorld extends WorldServer {
     private final ProtoSlimeFile protoSlimeFile;
     private final SlimeWorld slimeWorld;
 
-    private final Object lock = new Object();
-
     /**
      * Thanks for SlimeWorldManager for the idea
      */
@@ -74,6 +70,10 @@ public class CraftSlimeWorld extends WorldServer {
         this.slimeWorld = slimeWorld;
         this.protoSlimeFile = slimeFile;
 
+        // Nothing was loaded yet, so the provider NMS created can be swapped for the async one
+        this.chunkProviderServer = new SlimeChunkProviderServer(slimeWorld, chunkProviderServer);
+        this.chunkProvider = chunkProviderServer;
+
         b();
         this.tracker = new EntityTracker(this);
         addIWorldAccess(new WorldManager(MINECRAFT_SERVER, this));
@@ -100,28 +100,33 @@ public class CraftSlimeWorld extends WorldServer {
 
         super.save(flag, iprogressupdate);
 
-        synchronized (lock) {
-            SlimeKorld slimeKorld = Bukkit.getServicesManager()
-                .load(SlimeKorld.class);
+        CompletableFuture<Void> future;
 
-            SlimeLoaderStrategy loaderStrategy = slimeKorld.getLoaderStrategy();
+        // Journals are compacted while stopping, the next session starts from a single file
+        if (!MINECRAFT_SERVER.isRunning() && slimeWorld instanceof BukkitSlimeWorld) {
+            future = ((BukkitSlimeWorld) slimeWorld).save(true);
+        } else {
+            future = slimeWorld.save();
+        }
 
-            if (loaderStrategy != null) {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        // Nothing would be left to persist it once the server stops
+        if (!MINECRAFT_SERVER.isRunning()) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                throw new ExceptionWorldConflict(e.getCause().getMessage());
+            }
 
-                try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(byteArrayOutputStream, slimeWorld, slimeKorld.getDataRegistry())) {
-                    slimeOutputStream.write();
-                } catch (Exception e) {
-                    throw new ExceptionWorldConflict(e.getMessage());
-                }
+            return;
+        }
 
-                try {
-                    loaderStrategy.save(slimeWorld, byteArrayOutputStream.toByteArray());
-                } catch (InternalSlimeException ex) {
-                    throw new RuntimeException(ex);
-                }
+        future.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                slimeWorld.getKorld()
+                    .getLogger()
+                    .error("Failed to save world " + slimeWorld.getName(), throwable);
             }
-        }
+        });
     }
 
     public ProtoSlimeFile getProtoSlimeFile() {
@@ -25,12 +25,38 @@
 package me.luizotavio.minecraft.world.chunkloader;
 
 import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import me.luizotavio.minecraft.codec.EncodedChunkCache;
+import me.luizotavio.minecraft.codec.ParallelRange;
+import me.luizotavio.minecraft.codec.SlimeChunkStore;
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.SlimeTemplate;
 import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
 import me.luizotavio.minecraft.world.CraftSlimeWorld;
 import net.minecraft.server.v1_8_R3.*;
+import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
 
 /**
  * @author Luiz Otávio de Farias Corrêa
@@ -38,50 +64,400 @@ import java.io.IOException;
  */
 public class SlimeChunkLoader implements IChunkLoader {
 
-    private final TLongObjectHashMap<ProtoSlimeChunk> chunks;
+    // Chunks unloaded through the API may never reach the loader, so every chunk is checked this often
+    private static final int FULL_RELEASE_INTERVAL = 600;
 
+    private final ProtoSlimeFile protoSlimeFile;
+    private final SlimeTemplate template;
+
+    private final int unloadedCapacity;
+    private final boolean withEntities;
+
+    // Chunks handed to NMS, only kept to be released once NMS unloads them
     private final TLongObjectHashMap<Chunk> loadedChunks = new TLongObjectHashMap<>();
 
-    public SlimeChunkLoader(TLongObjectHashMap<ProtoSlimeChunk> chunks) {
-        this.chunks = chunks;
+    // Chunks given to the save path, the ones no longer loaded by NMS were unloaded
+    private final TLongHashSet unloadCandidates = new TLongHashSet();
+
+    // Recently unloaded chunks, kept as they are for fast re-entry
+    private final LinkedHashMap<Long, Chunk> unloadedChunks = new LinkedHashMap<Long, Chunk>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+            if (size() <= unloadedCapacity) {
+                return false;
+            }
+
+            retire(eldest.getKey(), eldest.getValue());
+            return true;
+        }
+    };
+
+    // Modified chunks evicted from the unloaded ones, the file doesn't hold their changes
+    private final SlimeChunkStore chunkStore = new SlimeChunkStore();
+
+    // Chunks whose changes only live in their NMS chunk, neither the file nor the store holds them
+    private final TLongHashSet modifiedChunks = new TLongHashSet();
+
+    // Chunks being decoded off the main thread, only touched on the main thread
+    private final TLongObjectHashMap<CompletableFuture<ProtoSlimeChunk>> pendingChunks = new TLongObjectHashMap<>();
+
+    private final EncodedChunkCache chunkCache;
+
+    private WorldServer world;
+    private int ticksSinceFullRelease;
+
+    public SlimeChunkLoader(ProtoSlimeFile protoSlimeFile) {
+        this(protoSlimeFile, 0, 0, true);
+    }
+
+    /**
+     * @param protoSlimeFile The file the chunks are decoded from.
+     * @param unloadedCapacity How many unloaded chunks are kept as they are, 0 to keep none.
+     * @param encodedCapacity How many chunks are kept encoded for the next saves, 0 to keep none.
+     * @param withEntities If the entities of the world are saved, chunks with entities are then always stored.
+     */
+    public SlimeChunkLoader(ProtoSlimeFile protoSlimeFile, int unloadedCapacity, int encodedCapacity, boolean withEntities) {
+        this(protoSlimeFile, null, unloadedCapacity, encodedCapacity, withEntities);
+    }
+
+    /**
+     * @param template The template of the file, chunks are then decoded only once for every instance of it.
+     */
+    public SlimeChunkLoader(ProtoSlimeFile protoSlimeFile, @Nullable SlimeTemplate template, int unloadedCapacity, int encodedCapacity, boolean withEntities) {
+        this.protoSlimeFile = protoSlimeFile;
+        this.template = template;
+        this.unloadedCapacity = Math.max(0, unloadedCapacity);
+        this.chunkCache = new EncodedChunkCache(encodedCapacity);
+        this.withEntities = withEntities;
+
+        // Frames copied from the file point to its shared sections, so the first save keeps their indexes
+        chunkCache.setSharedOrder(protoSlimeFile.getSharedBodies());
     }
 
     @Override
     public Chunk a(World world, int i, int i1) throws IOException {
+        this.world = (WorldServer) world;
+
         long hash = LongHash.toLong(i, i1);
 
-        if (loadedChunks.containsKey(hash)) {
-            return loadedChunks.get(hash);
-        } else {
-            ProtoSlimeChunk chunk = chunks.get(hash);
+        // Taken first, so no decode outlives the request whatever the chunk is built from
+        CompletableFuture<ProtoSlimeChunk> pending = pendingChunks.remove(hash);
 
-            if (chunk == null) {
-                return null;
+        Chunk target = unloadedChunks.remove(hash);
+
+        if (target != null) {
+            if (pending != null) {
+                pending.cancel(false);
             }
 
-            Chunk target = chunk.toChunk(world);
-            loadedChunks.put(hash, target);
+            SlimeMetrics.increment(SlimeMetric.CHUNK_CACHE_HITS);
 
+            loadedChunks.put(hash, target);
             return target;
         }
+
+        SlimeMetrics.increment(SlimeMetric.CHUNK_CACHE_MISSES);
+
+        // Released once handed to NMS, the chunk holds the only copy from now on
+        byte[] entry = chunkStore.remove(hash);
+
+        ProtoSlimeChunk chunk = join(pending);
+
+        if (chunk == null) {
+            chunk = entry != null
+                ? SlimeChunkStore.decode(entry, protoSlimeFile, true)
+                : decode(i, i1);
+        }
+
+        if (chunk == null) {
+            return null;
+        }
+
+        if (entry != null) {
+            modifiedChunks.add(hash);
+        }
+
+        target = chunk.toChunk(world);
+        loadedChunks.put(hash, target);
+
+        return target;
+    }
+
+    /**
+     * Waits for a decode already submitted, as it started on the pool decoding again would only add work.
+     * @return The chunk decoded off the main thread, or null if none was submitted or it failed.
+     */
+    private ProtoSlimeChunk join(@Nullable CompletableFuture<ProtoSlimeChunk> pending) {
+        if (pending == null) {
+            return null;
+        }
+
+        try {
+            return pending.join();
+        } catch (CompletionException | CancellationException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a chunk off the main thread, so NMS only has to wire it and spawn its entities
+     * once it's requested. Must be called on the main thread.
+     * @param x The chunk x.
+     * @param z The chunk z.
+     * @param executor The executor to decode the chunk on.
+     * @return A future completed on the executor once the chunk is decoded,
+     *         with null if the loader has nothing to decode for it.
+     */
+    public CompletableFuture<ProtoSlimeChunk> prepareAsync(int x, int z, @NotNull Executor executor) {
+        long hash = LongHash.toLong(x, z);
+
+        if (loadedChunks.containsKey(hash) || unloadedChunks.containsKey(hash)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<ProtoSlimeChunk> pending = pendingChunks.get(hash);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        byte[] entry = chunkStore.get(hash);
+
+        pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return entry != null
+                    ? SlimeChunkStore.decode(entry, protoSlimeFile, true)
+                    : decode(x, z);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+
+        pendingChunks.put(hash, pending);
+        return pending;
+    }
+
+    /**
+     * Decodes the given chunks in parallel and waits for them, so NMS only has to wire them once they are requested.
+     * Chunks the loader already holds or decodes are skipped. Must be called on the main thread.
+     * @param keys The chunks to decode, see {@link LongHash#toLong(int, int)}.
+     * @param pool The pool to decode the chunks on.
+     * @throws IOException If a chunk can't be decoded, none of them is kept then.
+     */
+    public void prepareAll(long @NotNull [] keys, @NotNull ForkJoinPool pool) throws IOException {
+        long[] missing = Arrays.stream(keys)
+            .filter(key -> !loadedChunks.containsKey(key) && !unloadedChunks.containsKey(key) && !pendingChunks.containsKey(key))
+            .toArray();
+
+        byte[][] entries = new byte[missing.length][];
+
+        for (int index = 0; index < missing.length; index++) {
+            entries[index] = chunkStore.get(missing[index]);
+        }
+
+        ProtoSlimeChunk[] decoded = new ProtoSlimeChunk[missing.length];
+
+        ParallelRange.forEach(pool, missing.length, index -> decoded[index] = entries[index] != null
+            ? SlimeChunkStore.decode(entries[index], protoSlimeFile, true)
+            : decode(LongHash.msw(missing[index]), LongHash.lsw(missing[index])));
+
+        for (int index = 0; index < missing.length; index++) {
+            pendingChunks.put(missing[index], CompletableFuture.completedFuture(decoded[index]));
+        }
+    }
+
+    private ProtoSlimeChunk decode(int x, int z) throws IOException {
+        return template != null ? template.getProtoChunk(x, z) : protoSlimeFile.getProtoChunk(x, z);
+    }
+
+    /**
+     * @return If the loader has the chunk, otherwise NMS generates it.
+     */
+    public boolean hasChunk(int x, int z) {
+        long hash = LongHash.toLong(x, z);
+
+        return loadedChunks.containsKey(hash)
+            || unloadedChunks.containsKey(hash)
+            || chunkStore.contains(hash)
+            || protoSlimeFile.hasChunk(x, z);
     }
 
     /**
-     * Save method to save each chunk to the file system.
+     * Called for every modified chunk when the world is saved, and for every chunk being unloaded.
+     * The whole world is written at once by the slime world, so the chunk is only marked dirty.
      */
     @Override
     public void a(World world, Chunk chunk) throws IOException, ExceptionWorldConflict {
+        this.world = (WorldServer) world;
+
+        long hash = LongHash.toLong(chunk.locX, chunk.locZ);
+
+        chunkCache.markDirty(chunk.locX, chunk.locZ);
+
+        // Still flagged while NMS saves it, so no modification is missed even if it's unloaded later
+        if (chunk.a(false)) {
+            modifiedChunks.add(hash);
+        }
+
+        unloadCandidates.add(hash);
     }
 
     /**
-     * Save method to save each chunk to the file system.
+     * Called for every chunk on a full save, modified or not, so it says nothing about the chunk.
      */
     @Override
     public void b(World world, Chunk chunk) throws IOException {
     }
 
+    /**
+     * Called by NMS every tick once it's done unloading chunks, see {@link #releaseUnloaded(WorldServer, boolean)}.
+     */
     @Override
     public void a() {
+        if (world == null) {
+            return;
+        }
+
+        boolean all = ++ticksSinceFullRelease >= FULL_RELEASE_INTERVAL;
+
+        if (all) {
+            ticksSinceFullRelease = 0;
+        }
+
+        if (all || !unloadCandidates.isEmpty()) {
+            releaseUnloaded(world, all);
+        }
+    }
+
+    /**
+     * Releases the chunks NMS no longer holds, they are kept as unloaded chunks
+     * or released right away when none are kept. Modified chunks are stored once released.
+     * @param world The world of this loader.
+     * @param all If every chunk should be checked, not only the ones NMS gave to the save path.
+     */
+    private void releaseUnloaded(@NotNull WorldServer world, boolean all) {
+        long[] keys = all ? loadedChunks.keys() : unloadCandidates.toArray();
+
+        for (long key : keys) {
+            if (world.chunkProviderServer.chunks.containsKey(key)) {
+                continue;
+            }
+
+            Chunk chunk = loadedChunks.remove(key);
+
+            if (chunk == null) {
+                continue;
+            }
+
+            if (unloadedCapacity > 0) {
+                unloadedChunks.put(key, chunk);
+            } else {
+                retire(key, chunk);
+            }
+        }
+
+        unloadCandidates.clear();
+    }
+
+    private void retire(long key, @NotNull Chunk chunk) {
+        SlimeMetrics.increment(SlimeMetric.CHUNK_CACHE_EVICTIONS);
+
+        // Stored from now on, or its changes are lost, so only the loaded and kept chunks stay tracked
+        boolean modified = modifiedChunks.remove(key);
+
+        // Unmodified chunks are decoded from the file again on re-entry
+        if (!modified && !chunk.a(false) && !(withEntities && hasEntities(chunk))) {
+            return;
+        }
+
+        try {
+            chunkStore.put(ProtoSlimeChunk.capture(chunk, withEntities), withEntities);
+        } catch (IOException exception) {
+            Bukkit.getLogger().log(Level.SEVERE, "Could not store unloaded chunk " + chunk.locX + ", " + chunk.locZ + ", its changes are lost", exception);
+            return;
+        }
+
+        SlimeMetrics.increment(SlimeMetric.CHUNKS_RETAINED);
+    }
+
+    private boolean hasEntities(@NotNull Chunk chunk) {
+        for (List<Entity> slice : chunk.getEntitySlices()) {
+            if (!slice.isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The encoded chunks of the previous saves, see {@link EncodedChunkCache}.
+     */
+    public EncodedChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * @return The file the chunks are decoded from.
+     */
+    public ProtoSlimeFile getProtoSlimeFile() {
+        return protoSlimeFile;
+    }
+
+    /**
+     * @return The modified chunks NMS unloaded, see {@link SlimeChunkStore}.
+     */
+    public SlimeChunkStore getChunkStore() {
+        return chunkStore;
+    }
+
+    /**
+     * Chunks unloaded through the API without reaching the loader, until they are released.
+     * Must be called on the main thread.
+     * @param world The world of this loader.
+     * @return The chunks handed to NMS that it no longer holds.
+     */
+    public List<Chunk> getDetachedChunks(@NotNull WorldServer world) {
+        List<Chunk> detached = new ArrayList<>();
+
+        loadedChunks.forEachEntry((key, chunk) -> {
+            if (!world.chunkProviderServer.chunks.containsKey(key)) {
+                detached.add(chunk);
+            }
+
+            return true;
+        });
+
+        return detached;
+    }
+
+    /**
+     * @return The recently unloaded chunks still kept as they are, only valid on the main thread.
+     */
+    public Collection<Chunk> getUnloadedChunks() {
+        return Collections.unmodifiableCollection(unloadedChunks.values());
+    }
+
+    /**
+     * @return How many unloaded chunks are kept as they are for fast re-entry.
+     */
+    public int getUnloadedChunkCount() {
+        return unloadedChunks.size();
+    }
+
+    /**
+     * Releases what the loader keeps for the world, called on the main thread once the world is unloaded.
+     * Chunks still being decoded are cancelled, the encoded chunks are kept until the saves are done with them.
+     * @param pendingSaves Completed once the saves of the world still encoding from the cache are persisted.
+     */
+    public void close(@NotNull CompletionStage<?> pendingSaves) {
+        for (CompletableFuture<ProtoSlimeChunk> pending : pendingChunks.valueCollection()) {
+            pending.cancel(false);
+        }
+
+        pendingChunks.clear();
+
+        pendingSaves.whenComplete((ignored, throwable) -> chunkCache.close());
     }
 
     @Override
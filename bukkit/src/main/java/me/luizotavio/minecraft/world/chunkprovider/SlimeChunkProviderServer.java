@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.world.chunkprovider;
+
+import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
+import net.minecraft.server.v1_8_R3.Chunk;
+import net.minecraft.server.v1_8_R3.ChunkProviderServer;
+import net.minecraft.server.v1_8_R3.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decodes chunks requested by players off the main thread.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeChunkProviderServer extends ChunkProviderServer {
+
+    private static final MinecraftServer MINECRAFT_SERVER = MinecraftServer.getServer();
+
+    private final SlimeWorld slimeWorld;
+
+    /**
+     * @param slimeWorld The slime world the chunks belong to.
+     * @param provider The provider created by NMS, its loader and generator are reused.
+     */
+    public SlimeChunkProviderServer(@NotNull SlimeWorld slimeWorld, @NotNull ChunkProviderServer provider) {
+        super(provider.world, provider.chunkLoader, provider.chunkProvider);
+
+        this.slimeWorld = slimeWorld;
+    }
+
+    /**
+     * Used by players moving around, the callback runs on the main thread
+     * once the chunk is loaded, on a later tick if it had to be decoded.
+     * @return The chunk if it was already loaded or had nothing to decode, otherwise null.
+     */
+    @Override
+    public Chunk getChunkAt(int x, int z, Runnable runnable) {
+        if (runnable == null || !(chunkLoader instanceof SlimeChunkLoader) || isChunkLoaded(x, z)) {
+            return super.getChunkAt(x, z, runnable);
+        }
+
+        SlimeChunkLoader loader = (SlimeChunkLoader) chunkLoader;
+
+        if (!loader.hasChunk(x, z)) {
+            return super.getChunkAt(x, z, runnable);
+        }
+
+        unloadQueue.remove(x, z);
+
+        loader.prepareAsync(x, z, slimeWorld.getKorld().getDecodePool())
+            .whenComplete((chunk, throwable) -> MINECRAFT_SERVER.processQueue.add(() -> {
+                // The world may have been unloaded, or never added, while the chunk was decoded
+                if (!MINECRAFT_SERVER.worlds.contains(world)) {
+                    return;
+                }
+
+                super.getChunkAt(x, z, runnable);
+            }));
+
+        return null;
+    }
+}
@@ -25,13 +25,15 @@
 package me.luizotavio.minecraft.world.data;
 
 import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.common.settings.factory.SettingsPropertyFactory;
 import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.SlimeTemplate;
 import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
 import net.minecraft.server.v1_8_R3.*;
 import org.apache.commons.lang.ArrayUtils;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.UUID;
 
 /**
@@ -55,6 +57,10 @@ public class SlimeDataManager extends WorldNBTStorage {
     // Thanks Spigot!
     // Thanks SlimeWorldManager!
     public SlimeDataManager(SlimeWorld world, ProtoSlimeFile protoSlimeFile) {
+        this(world, protoSlimeFile, null);
+    }
+
+    public SlimeDataManager(SlimeWorld world, ProtoSlimeFile protoSlimeFile, @Nullable SlimeTemplate template) {
         super(new File("temp_" + world.getName()), world.getName(), false);
 
         // The WorldNBTStorage automatically creates some files inside the base dir, so we have to delete them
@@ -70,13 +76,13 @@ public class SlimeDataManager extends WorldNBTStorage {
 
         this.world = world;
 
-        try {
-            this.chunkLoader = new SlimeChunkLoader(
-                protoSlimeFile.getProtoChunks()
-            );
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        this.chunkLoader = new SlimeChunkLoader(
+            protoSlimeFile,
+            template,
+            world.getProperty(SettingsPropertyFactory.UNLOADED_CHUNK_CACHE),
+            world.getProperty(SettingsPropertyFactory.ENCODED_CHUNK_CACHE),
+            world.hasProperty(SettingsPropertyFactory.HAS_ENTITIES)
+        );
     }
 
     @Override
@@ -88,6 +94,10 @@ public class SlimeDataManager extends WorldNBTStorage {
         return worldData;
     }
 
+    public SlimeChunkLoader getChunkLoader() {
+        return chunkLoader;
+    }
+
     @Override
     public void checkSession() throws ExceptionWorldConflict {}
 
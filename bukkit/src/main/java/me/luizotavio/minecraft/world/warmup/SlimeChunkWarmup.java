@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package me.luizotavio.minecraft.world.warmup;
+
+import me.luizotavio.minecraft.common.SlimeWorld;
+import me.luizotavio.minecraft.common.event.impl.SlimeWorldWarmupEvent;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.world.chunkloader.SlimeChunkLoader;
+import net.minecraft.server.v1_8_R3.MinecraftServer;
+import net.minecraft.server.v1_8_R3.WorldServer;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads every chunk of a slime world over several ticks, from the spawn outwards.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeChunkWarmup extends BukkitRunnable {
+
+    private static final MinecraftServer MINECRAFT_SERVER = MinecraftServer.getServer();
+
+    private final SlimeWorld slimeWorld;
+    private final WorldServer world;
+    private final SlimeChunkLoader loader;
+
+    private final long[] keys;
+    private final long budget;
+
+    // Chunks decoded ahead, in the same order as the keys
+    private final ArrayDeque<CompletableFuture<ProtoSlimeChunk>> decoding = new ArrayDeque<>();
+    private final Executor decodeExecutor;
+    private final int decodeAhead;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final long startedAt = System.nanoTime();
+
+    private volatile int loaded;
+    private int requested;
+
+    /**
+     * @param slimeWorld The slime world being warmed up.
+     * @param world The NMS world of the slime world.
+     * @param loader The chunk loader of the world.
+     * @param keys The chunks to load, see {@link LongHash#toLong(int, int)}.
+     * @param spawnX The spawn chunk x, chunks are loaded in a spiral around it.
+     * @param spawnZ The spawn chunk z.
+     * @param budget How long each tick may spend loading chunks.
+     * @param unit The unit of the budget.
+     * @param decodeExecutor The executor to decode chunks on ahead of time, or null to decode them within the budget.
+     * @param decodeAhead How many chunks may be decoded ahead of the ones loaded.
+     */
+    public SlimeChunkWarmup(
+        @NotNull SlimeWorld slimeWorld,
+        @NotNull WorldServer world,
+        @NotNull SlimeChunkLoader loader,
+        long @NotNull [] keys,
+        int spawnX,
+        int spawnZ,
+        long budget,
+        @NotNull TimeUnit unit,
+        @Nullable Executor decodeExecutor,
+        int decodeAhead
+    ) {
+        this.slimeWorld = slimeWorld;
+        this.world = world;
+        this.loader = loader;
+        this.keys = spiral(keys, spawnX, spawnZ);
+        this.budget = Math.max(1, unit.toNanos(budget));
+        this.decodeExecutor = decodeExecutor;
+        this.decodeAhead = decodeExecutor == null ? 0 : Math.max(1, decodeAhead);
+    }
+
+    @Override
+    public void run() {
+        if (!MINECRAFT_SERVER.worlds.contains(world)) {
+            cancel();
+            future.cancel(false);
+            return;
+        }
+
+        long deadline = System.nanoTime() + budget;
+
+        decodeAhead();
+
+        while (loaded < keys.length && System.nanoTime() < deadline) {
+            CompletableFuture<ProtoSlimeChunk> decoded = decoding.peek();
+
+            // Decoding is behind, waiting for it is cheaper than decoding again on the main thread
+            if (decoded != null && !decoded.isDone()) {
+                break;
+            }
+
+            decoding.poll();
+
+            long key = keys[loaded];
+
+            world.chunkProviderServer.getChunkAt(LongHash.msw(key), LongHash.lsw(key));
+
+            loaded++;
+            decodeAhead();
+        }
+
+        if (loaded < keys.length) {
+            return;
+        }
+
+        cancel();
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        new SlimeWorldWarmupEvent(slimeWorld, keys.length, elapsed)
+            .call();
+
+        future.complete(null);
+    }
+
+    private void decodeAhead() {
+        while (requested < keys.length && requested - loaded < decodeAhead) {
+            long key = keys[requested++];
+
+            decoding.add(loader.prepareAsync(LongHash.msw(key), LongHash.lsw(key), decodeExecutor));
+        }
+    }
+
+    /**
+     * @return A future completed once every chunk is loaded, cancelled if the world is unloaded before.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * @return The share of chunks already loaded, from 0 to 1.
+     */
+    public double getProgress() {
+        return keys.length == 0 ? 1 : (double) loaded / keys.length;
+    }
+
+    /**
+     * Orders the chunks ring by ring around the center, each ring walked clockwise.
+     * Spiral indexes are unique per chunk, so they are sorted as they are and turned back into keys.
+     */
+    private static long[] spiral(long @NotNull [] keys, int centerX, int centerZ) {
+        long[] ordered = new long[keys.length];
+
+        for (int index = 0; index < keys.length; index++) {
+            ordered[index] = spiralIndex(keys[index], centerX, centerZ);
+        }
+
+        Arrays.sort(ordered);
+
+        for (int index = 0; index < ordered.length; index++) {
+            ordered[index] = fromSpiralIndex(ordered[index], centerX, centerZ);
+        }
+
+        return ordered;
+    }
+
+    private static long spiralIndex(long key, int centerX, int centerZ) {
+        int dx = LongHash.msw(key) - centerX,
+            dz = LongHash.lsw(key) - centerZ;
+
+        int ring = Math.max(Math.abs(dx), Math.abs(dz));
+        int position;
+
+        if (dz == -ring) {
+            position = dx + ring;
+        } else if (dx == ring) {
+            position = 3 * ring + dz;
+        } else if (dz == ring) {
+            position = 5 * ring - dx;
+        } else {
+            position = 7 * ring - dz;
+        }
+
+        return ((long) ring << 32) | position;
+    }
+
+    private static long fromSpiralIndex(long spiralIndex, int centerX, int centerZ) {
+        int ring = (int) (spiralIndex >>> 32),
+            position = (int) spiralIndex;
+
+        int dx, dz;
+
+        if (position <= 2 * ring) {
+            dx = position - ring;
+            dz = -ring;
+        } else if (position <= 4 * ring) {
+            dx = ring;
+            dz = position - 3 * ring;
+        } else if (position <= 6 * ring) {
+            dx = 5 * ring - position;
+            dz = ring;
+        } else {
+            dx = -ring;
+            dz = 7 * ring - position;
+        }
+
+        return LongHash.toLong(centerX + dx, centerZ + dz);
+    }
+}
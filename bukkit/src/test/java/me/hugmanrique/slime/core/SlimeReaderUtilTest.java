@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.hugmanrique.slime.core;
+
+import me.luizotavio.minecraft.SlimeTestWorlds;
+import net.minecraft.server.v1_8_R3.Block;
+import net.minecraft.server.v1_8_R3.NibbleArray;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeReaderUtilTest {
+
+    @BeforeAll
+    public static void bootstrap() {
+        SlimeTestWorlds.bootstrap();
+    }
+
+    @Test
+    public void registeredBlocksAreKept() {
+        for (int packed = 0; packed < 1 << 16; packed++) {
+            if (Block.d.a(packed) != null) {
+                assertEquals((char) packed, SlimeReaderUtil.getBlockId(packed), "Block " + packed);
+            }
+        }
+    }
+
+    @Test
+    public void unknownDataIsRepaired() {
+        // Stone has no variant with data 15
+        char blockId = SlimeReaderUtil.getBlockId(1, 15);
+
+        assertNotNull(Block.d.a(blockId));
+        assertEquals(1, blockId >> 4);
+    }
+
+    @Test
+    public void bulkReadMatchesSingleLookups() {
+        Random random = new Random(11);
+
+        byte[] blocks = new byte[4096];
+        NibbleArray data = new NibbleArray();
+
+        random.nextBytes(blocks);
+
+        for (int index = 0; index < blocks.length; index++) {
+            data.a(index & 15, index >> 8 & 15, index >> 4 & 15, random.nextInt(16));
+        }
+
+        char[] packed = new char[blocks.length],
+            nibbles = new char[blocks.length];
+
+        SlimeReaderUtil.readBlockIds(packed, blocks, data.a());
+        SlimeReaderUtil.readBlockIds(nibbles, blocks, data);
+
+        for (int index = 0; index < blocks.length; index++) {
+            int blockData = data.a(index & 15, index >> 8 & 15, index >> 4 & 15);
+
+            assertEquals(SlimeReaderUtil.getBlockId(blocks[index] & 0xFF, blockData), packed[index]);
+        }
+
+        assertArrayEquals(packed, nibbles);
+    }
+
+    @Test
+    public void blockIndexMatchesTheSectionLayout() {
+        assertEquals(0, SlimeReaderUtil.getBlockIndex(0, 0, 0));
+        assertEquals(0x123, SlimeReaderUtil.getBlockIndex(3, 1, 2));
+        assertEquals(4095, SlimeReaderUtil.getBlockIndex(15, 15, 15));
+    }
+}
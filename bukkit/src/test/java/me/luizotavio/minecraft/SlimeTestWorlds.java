@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft;
+
+import me.hugmanrique.slime.core.SlimeReaderUtil;
+import me.luizotavio.minecraft.codec.SlimeBufferReader;
+import me.luizotavio.minecraft.codec.SlimeOutputStream;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
+import net.minecraft.server.v1_8_R3.DispenserRegistry;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
+
+/**
+ * Builds chunks and slime files for the tests, without a running server.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public final class SlimeTestWorlds {
+
+    public static final char STONE = 1 << 4, DIRT = 3 << 4, GRASS = 2 << 4, PLANKS = 5 << 4;
+
+    private static boolean bootstrapped;
+
+    private SlimeTestWorlds() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Registers every block, the remap table reads the registry.
+     */
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            DispenserRegistry.c();
+            bootstrapped = true;
+        }
+    }
+
+    /**
+     * @return A chunk with a single section of the given blocks at the bottom.
+     */
+    @NotNull
+    public static ProtoSlimeChunk chunk(int x, int z, char @NotNull [] blockIds) {
+        ProtoSlimeSection[] sections = new ProtoSlimeSection[SECTION_PER_CHUNK];
+
+        byte[] blockLight = new byte[NIBBLE_ARRAY_SIZE],
+            skyLight = new byte[NIBBLE_ARRAY_SIZE];
+
+        new Random(7).nextBytes(blockLight);
+        Arrays.fill(skyLight, (byte) 0xFF);
+
+        sections[0] = new ProtoSlimeSection(0, blockIds.clone(), blockLight, skyLight);
+
+        int[] heightMap = new int[HEIGHTMAP_SIZE];
+        Arrays.fill(heightMap, 16);
+
+        byte[] biomeIds = new byte[BIOME_SIZE];
+        Arrays.fill(biomeIds, (byte) 4);
+
+        return new ProtoSlimeChunk(x, z, sections, heightMap, biomeIds);
+    }
+
+    @NotNull
+    public static SlimeWorldSnapshot snapshot(@NotNull ProtoSlimeChunk... chunks) {
+        return new SlimeWorldSnapshot(
+            SUPPORTED_VERSION,
+            0,
+            null,
+            Arrays.asList(chunks),
+            false,
+            false,
+            new NBTTagCompound(),
+            new NBTTagCompound(),
+            null
+        );
+    }
+
+    /**
+     * @return The whole slime file of the snapshot.
+     */
+    public static byte @NotNull [] write(@NotNull SlimeWorldSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream)) {
+            slimeOutputStream.write(snapshot);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    @NotNull
+    public static ProtoSlimeFile read(byte @NotNull [] data) throws IOException {
+        try {
+            return new SlimeBufferReader(ByteBuffer.wrap(data))
+                .transform(SUPPORTED_VERSION, Collections.emptySet());
+        } catch (IOException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * Repeats the blocks over a whole section.
+     */
+    public static char @NotNull [] spread(char @NotNull ... palette) {
+        char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+        for (int index = 0; index < blockIds.length; index++) {
+            blockIds[index] = palette[index % palette.length];
+        }
+
+        return blockIds;
+    }
+
+    /**
+     * @return Blocks the remap table keeps as they are and that fit the raw encoding.
+     * @throws IllegalStateException If there aren't enough of them.
+     */
+    public static char @NotNull [] stableIds(int count) {
+        char[] blockIds = new char[count];
+        int size = 0;
+
+        for (int packed = 0; packed < 1 << 12 && size < count; packed++) {
+            if (SlimeReaderUtil.getBlockId(packed) == packed) {
+                blockIds[size++] = (char) packed;
+            }
+        }
+
+        if (size < count) {
+            throw new IllegalStateException("Only " + size + " stable blocks");
+        }
+
+        return blockIds;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.codec.EncodedChunkCache.EncodedChunk;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class EncodedChunkCacheTest {
+
+    @Test
+    public void cachedChunksAreClaimed() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+        EncodedChunk chunk = entry(3);
+
+        cache.put(0, 0, chunk);
+
+        assertSame(chunk, cache.claim(0, 0));
+        assertNull(cache.claim(1, 0));
+    }
+
+    @Test
+    public void dirtyMarksAreClaimedOnce() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+        EncodedChunk chunk = entry(3);
+
+        cache.put(0, 0, chunk);
+        cache.markDirty(0, 0);
+
+        assertNull(cache.claim(0, 0));
+        assertSame(chunk, cache.claim(0, 0));
+    }
+
+    @Test
+    public void newerClaimsSurviveOlderInvalidations() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+
+        cache.put(0, 0, entry(3));
+
+        long first = cache.nextGeneration();
+        cache.claim(0, 0);
+
+        long second = cache.nextGeneration();
+        cache.claim(0, 0);
+
+        cache.invalidate(0, 0, first);
+        assertEquals(1, cache.size());
+
+        cache.invalidate(0, 0, second);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        EncodedChunkCache cache = new EncodedChunkCache(2);
+
+        cache.put(0, 0, entry(3));
+        cache.put(1, 0, entry(3));
+
+        cache.claim(0, 0);
+        cache.put(2, 0, entry(3));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.claim(0, 0));
+        assertNull(cache.claim(1, 0));
+        assertNotNull(cache.claim(2, 0));
+    }
+
+    @Test
+    public void memoryUsageFollowsEntries() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+
+        EncodedChunk small = entry(3),
+            large = new EncodedChunk(new int[HEIGHTMAP_SIZE], new byte[BIOME_SIZE], new byte[SECTION_PER_CHUNK][], references(), 0, 3, 0, new byte[4096], 8192);
+
+        cache.put(0, 0, small);
+        assertEquals(small.getMemoryUsage(), cache.getMemoryUsage());
+
+        cache.put(0, 0, large);
+        assertEquals(large.getMemoryUsage(), cache.getMemoryUsage());
+
+        cache.invalidate(0, 0);
+        assertEquals(0, cache.getMemoryUsage());
+    }
+
+    @Test
+    public void closedCacheKeepsNothing() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+
+        cache.put(0, 0, entry(3));
+        cache.close();
+
+        assertEquals(0, cache.size());
+
+        cache.put(1, 0, entry(3));
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMemoryUsage());
+    }
+
+    @Test
+    public void framesAreOnlyReusedWhenCompatible() {
+        EncodedChunk chunk = entry(3);
+
+        assertTrue(chunk.canReuse(0, 3, 0, references()));
+        assertTrue(chunk.canReuse(0, 1, 0, references()));
+
+        assertFalse(chunk.canReuse(1, 3, 0, references()));
+        assertFalse(chunk.canReuse(0, 9, 0, references()));
+        assertFalse(chunk.canReuse(0, 3, 27, references()));
+
+        int[] moved = references();
+        moved[0] = 2;
+
+        assertFalse(chunk.canReuse(0, 3, 0, moved));
+
+        EncodedChunk journaled = new EncodedChunk(new int[HEIGHTMAP_SIZE], new byte[BIOME_SIZE], new byte[SECTION_PER_CHUNK][], references(), 0, 0, 0, null, 0);
+
+        assertFalse(journaled.canReuse(0, 0, 0, references()));
+    }
+
+    @Test
+    public void sharedOrderIsKeptAsGiven() {
+        EncodedChunkCache cache = new EncodedChunkCache(4);
+
+        assertTrue(cache.getSharedOrder().isEmpty());
+
+        ByteBuffer body = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6 });
+
+        cache.setSharedOrder(Collections.singletonList(body));
+
+        assertEquals(Collections.singletonList(body), cache.getSharedOrder());
+        assertThrows(UnsupportedOperationException.class, () -> cache.getSharedOrder().add(body));
+    }
+
+    private EncodedChunk entry(int level) {
+        return new EncodedChunk(new int[HEIGHTMAP_SIZE], new byte[BIOME_SIZE], new byte[SECTION_PER_CHUNK][], references(), 0, level, 0, new byte[16], 1024);
+    }
+
+    private int[] references() {
+        int[] references = new int[SECTION_PER_CHUNK];
+
+        Arrays.fill(references, -1);
+
+        return references;
+    }
+}
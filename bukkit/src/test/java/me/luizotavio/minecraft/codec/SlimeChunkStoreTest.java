@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.codec;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import me.luizotavio.minecraft.SlimeTestWorlds;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.bukkit.craftbukkit.v1_8_R3.util.LongHash;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static me.luizotavio.minecraft.SlimeTestWorlds.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeChunkStoreTest {
+
+    private static final long KEY = LongHash.toLong(1, 2);
+
+    private ProtoSlimeFile file;
+
+    @BeforeAll
+    public static void bootstrap() {
+        SlimeTestWorlds.bootstrap();
+    }
+
+    @BeforeEach
+    public void readFile() throws IOException {
+        file = read(write(snapshot(chunk(5, 5, spread(STONE)))));
+    }
+
+    @Test
+    public void storedChunksDecodeWithTheirBlocks() throws IOException {
+        SlimeChunkStore store = new SlimeChunkStore();
+        ProtoSlimeChunk chunk = chunk(1, 2, spread(DIRT, GRASS));
+
+        store.put(chunk, false);
+
+        assertTrue(store.contains(KEY));
+
+        ProtoSlimeChunk decoded = SlimeChunkStore.decode(store.get(KEY), file, true);
+
+        assertEquals(1, decoded.getX());
+        assertEquals(2, decoded.getZ());
+        assertArrayEquals(chunk.getHeightMap(), decoded.getHeightMap());
+        assertArrayEquals(chunk.getSections()[0].getBlockIds(), decoded.getSections()[0].getBlockIds());
+        assertArrayEquals(chunk.getSections()[0].getBlockLight(), decoded.getSections()[0].getBlockLight());
+    }
+
+    @Test
+    public void storedChunksDecodeWithoutTheirBlocks() throws IOException {
+        SlimeChunkStore store = new SlimeChunkStore();
+        ProtoSlimeChunk chunk = chunk(1, 2, spread(DIRT));
+
+        NBTTagCompound tile = new NBTTagCompound();
+        tile.setString("id", "Chest");
+
+        NBTTagCompound entity = new NBTTagCompound();
+        entity.setString("id", "Pig");
+
+        chunk.addTileEntity(tile);
+        chunk.addEntity(entity);
+
+        store.put(chunk, true);
+
+        ProtoSlimeChunk decoded = SlimeChunkStore.decode(store.get(KEY), file, false);
+
+        assertFalse(decoded.hasBlocks());
+        assertEquals(1, decoded.getTileEntities().size());
+        assertEquals(1, decoded.getEntities().size());
+    }
+
+    @Test
+    public void entitiesAreLeftOutOnRequest() throws IOException {
+        SlimeChunkStore store = new SlimeChunkStore();
+        ProtoSlimeChunk chunk = chunk(1, 2, spread(DIRT));
+
+        chunk.addEntity(new NBTTagCompound());
+
+        store.put(chunk, false);
+
+        assertTrue(SlimeChunkStore.decode(store.get(KEY), file, true).getEntities().isEmpty());
+    }
+
+    @Test
+    public void memoryUsageFollowsEntries() throws IOException {
+        SlimeChunkStore store = new SlimeChunkStore();
+
+        store.put(chunk(1, 2, spread(DIRT)), false);
+        store.put(chunk(1, 2, spread(stableIds(600))), false);
+
+        assertEquals(1, store.size());
+        assertEquals(store.get(KEY).length, store.getMemoryUsage());
+
+        TLongObjectHashMap<byte[]> copy = store.copy();
+
+        assertNotNull(store.remove(KEY));
+        assertNull(store.remove(KEY));
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getMemoryUsage());
+        assertTrue(copy.containsKey(KEY));
+    }
+
+    @Test
+    public void corruptedEntriesAreRejected() throws IOException {
+        SlimeChunkStore store = new SlimeChunkStore();
+
+        store.put(chunk(1, 2, spread(DIRT)), false);
+
+        byte[] entry = store.get(KEY).clone();
+
+        // Claims fewer bytes than the frame holds
+        ByteBuffer.wrap(entry).putInt(1);
+
+        assertThrows(IOException.class, () -> SlimeChunkStore.decode(entry, file, true));
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.codec;
+
+import me.hugmanrique.slime.core.SlimeReaderUtil;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.SlimeWorldSnapshot;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeSection;
+import net.minecraft.server.v1_8_R3.DispenserRegistry;
+import net.minecraft.server.v1_8_R3.NBTTagCompound;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.*;
+import static me.luizotavio.minecraft.common.version.SlimeVersion.LEGACY_SLIME_VERSION;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes snapshots and reads them back, for every section encoding and revision.
+ *
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeFormatRoundTripTest {
+
+    private static final char STONE = 1 << 4, DIRT = 3 << 4, GRASS = 2 << 4, PLANKS = 5 << 4;
+
+    @BeforeAll
+    public static void bootstrap() {
+        DispenserRegistry.c();
+    }
+
+    @Test
+    public void rawSectionsRoundTrip() throws Exception {
+        char[] blockIds = spread(stableIds(600));
+
+        assertEquals(SlimeSectionCodec.RAW_ENCODING, encode(blockIds).get(0));
+        assertRoundTrip(blockIds);
+    }
+
+    @Test
+    public void singleSectionsRoundTrip() throws Exception {
+        char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+        Arrays.fill(blockIds, STONE);
+
+        assertEquals(SlimeSectionCodec.SINGLE_ENCODING, encode(blockIds).get(0));
+        assertRoundTrip(blockIds);
+    }
+
+    @Test
+    public void paletteSectionsRoundTrip() throws Exception {
+        char[] blockIds = spread(new char[] { STONE, DIRT, GRASS, PLANKS });
+
+        assertEquals(SlimeSectionCodec.PALETTE_ENCODING, encode(blockIds).get(0));
+        assertRoundTrip(blockIds);
+    }
+
+    @Test
+    public void identicalSectionsAreShared() throws Exception {
+        char[] blockIds = spread(new char[] { STONE, DIRT });
+
+        ProtoSlimeFile shared = roundTrip(snapshot(true, false, chunk(0, 0, blockIds), chunk(1, 0, blockIds)));
+        ProtoSlimeFile inline = roundTrip(snapshot(false, false, chunk(0, 0, blockIds), chunk(1, 0, blockIds)));
+
+        assertEquals(1, shared.getSharedBodies().size());
+        assertEquals(0, inline.getSharedBodies().size());
+
+        for (ProtoSlimeFile file : Arrays.asList(shared, inline)) {
+            assertSameBlocks(chunk(0, 0, blockIds), file.getProtoChunk(0, 0));
+            assertSameBlocks(chunk(1, 0, blockIds), file.getProtoChunk(1, 0));
+        }
+    }
+
+    @Test
+    public void constantLightCollapses() throws Exception {
+        byte[] light = new byte[NIBBLE_ARRAY_SIZE];
+
+        Arrays.fill(light, (byte) 0xFF);
+
+        ByteBuffer collapsed = ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE),
+            full = ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE);
+
+        SlimeSectionCodec.writeLight(collapsed, light, true);
+        SlimeSectionCodec.writeLight(full, light, false);
+
+        assertEquals(2, collapsed.position());
+        assertEquals(1 + NIBBLE_ARRAY_SIZE, full.position());
+
+        collapsed.flip();
+        full.flip();
+
+        assertArrayEquals(light, SlimeSectionCodec.readLight(collapsed));
+        assertArrayEquals(light, SlimeSectionCodec.readLight(full));
+
+        assertRoundTrip(spread(new char[] { STONE, DIRT }));
+    }
+
+    @Test
+    public void legacyFormatRoundTrip() throws Exception {
+        ProtoSlimeChunk chunk = chunk(-2, 3, spread(stableIds(600)));
+        ProtoSlimeFile file = roundTrip(snapshot(true, true, chunk));
+
+        assertEquals(LEGACY_SLIME_VERSION, file.getSlimeVersion());
+        assertSameBlocks(chunk, file.getProtoChunk(-2, 3));
+    }
+
+    private void assertRoundTrip(char[] blockIds) throws IOException {
+        for (boolean sharedSections : new boolean[] { true, false }) {
+            ProtoSlimeChunk chunk = chunk(4, -7, blockIds);
+            ProtoSlimeFile file = roundTrip(snapshot(sharedSections, false, chunk));
+
+            assertSameBlocks(chunk, file.getProtoChunk(4, -7));
+        }
+    }
+
+    private void assertSameBlocks(ProtoSlimeChunk expected, ProtoSlimeChunk actual) {
+        assertNotNull(actual);
+        assertArrayEquals(expected.getHeightMap(), actual.getHeightMap());
+        assertArrayEquals(expected.getBiomeIds(), actual.getBiomeIds());
+
+        for (int index = 0; index < SECTION_PER_CHUNK; index++) {
+            ProtoSlimeSection section = expected.getSections()[index];
+
+            if (section == null) {
+                assertNull(actual.getSections()[index]);
+                continue;
+            }
+
+            assertArrayEquals(section.getBlockIds(), actual.getSections()[index].getBlockIds());
+            assertArrayEquals(section.getBlockLight(), actual.getSections()[index].getBlockLight());
+            assertArrayEquals(section.getSkyLight(), actual.getSections()[index].getSkyLight());
+        }
+    }
+
+    private ProtoSlimeFile roundTrip(SlimeWorldSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream)) {
+            slimeOutputStream.write(snapshot);
+        }
+
+        try {
+            return new SlimeBufferReader(ByteBuffer.wrap(outputStream.toByteArray()))
+                .transform(SUPPORTED_VERSION, Collections.emptySet());
+        } catch (Exception exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    private SlimeWorldSnapshot snapshot(boolean sharedSections, boolean legacyFormat, ProtoSlimeChunk... chunks) {
+        return new SlimeWorldSnapshot(
+            SUPPORTED_VERSION,
+            0,
+            null,
+            Arrays.asList(chunks),
+            false,
+            false,
+            sharedSections,
+            legacyFormat,
+            new NBTTagCompound(),
+            new NBTTagCompound(),
+            null
+        );
+    }
+
+    private ProtoSlimeChunk chunk(int x, int z, char[] blockIds) {
+        ProtoSlimeSection[] sections = new ProtoSlimeSection[SECTION_PER_CHUNK];
+
+        byte[] blockLight = new byte[NIBBLE_ARRAY_SIZE],
+            skyLight = new byte[NIBBLE_ARRAY_SIZE];
+
+        // Varied block light and constant sky light, so both light flags are written
+        new Random(7).nextBytes(blockLight);
+        Arrays.fill(skyLight, (byte) 0xFF);
+
+        sections[0] = new ProtoSlimeSection(0, blockIds.clone(), blockLight, skyLight);
+
+        int[] heightMap = new int[HEIGHTMAP_SIZE];
+        Arrays.fill(heightMap, 16);
+
+        byte[] biomeIds = new byte[BIOME_SIZE];
+        Arrays.fill(biomeIds, (byte) 4);
+
+        return new ProtoSlimeChunk(x, z, sections, heightMap, biomeIds);
+    }
+
+    private ByteBuffer encode(char[] blockIds) {
+        ByteBuffer buffer = ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE);
+
+        new SlimeSectionCodec().write(buffer, blockIds);
+
+        buffer.flip();
+
+        return buffer;
+    }
+
+    /**
+     * Repeats the blocks over a whole section.
+     */
+    private char[] spread(char[] palette) {
+        char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+        for (int index = 0; index < blockIds.length; index++) {
+            blockIds[index] = palette[index % palette.length];
+        }
+
+        return blockIds;
+    }
+
+    /**
+     * Picks blocks the remap table keeps as they are and that fit the raw encoding.
+     */
+    private char[] stableIds(int count) {
+        char[] blockIds = new char[count];
+        int size = 0;
+
+        for (int packed = 0; packed < 1 << 12 && size < count; packed++) {
+            if (SlimeReaderUtil.getBlockId(packed) == packed) {
+                blockIds[size++] = (char) packed;
+            }
+        }
+
+        assertEquals(count, size);
+
+        return blockIds;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.SlimeTestWorlds;
+import me.luizotavio.minecraft.prototype.ProtoSlimeFile;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static me.luizotavio.minecraft.SlimeTestWorlds.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeJournalTest {
+
+    @BeforeAll
+    public static void bootstrap() {
+        SlimeTestWorlds.bootstrap();
+    }
+
+    @Test
+    public void headerMatchesItsFileOnly() throws IOException {
+        byte[] base = write(snapshot(chunk(0, 0, spread(STONE)))),
+            other = write(snapshot(chunk(0, 0, spread(DIRT))));
+
+        ByteBuffer header = ByteBuffer.wrap(SlimeJournal.createHeader(ByteBuffer.wrap(base)));
+
+        assertEquals(SlimeJournal.HEADER_SIZE, header.remaining());
+        assertTrue(SlimeJournal.matches(header, ByteBuffer.wrap(base)));
+        assertFalse(SlimeJournal.matches(header, ByteBuffer.wrap(other)));
+    }
+
+    @Test
+    public void recordsAreReplayedInOrder() throws IOException {
+        byte[] base = write(snapshot(chunk(0, 0, spread(STONE))));
+
+        byte[] journal = journal(base,
+            record(chunk(0, 0, spread(DIRT)), chunk(1, 0, spread(GRASS))),
+            record(chunk(0, 0, spread(PLANKS)))
+        );
+
+        ProtoSlimeFile file = read(base);
+
+        assertEquals(2, SlimeJournal.replay(ByteBuffer.wrap(journal), ByteBuffer.wrap(base), file));
+
+        assertArrayEquals(spread(PLANKS), blocks(file, 0, 0));
+        assertArrayEquals(spread(GRASS), blocks(file, 1, 0));
+    }
+
+    @Test
+    public void tornTailIsIgnored() throws IOException {
+        byte[] base = write(snapshot(chunk(0, 0, spread(STONE))));
+        byte[] journal = journal(base, record(chunk(0, 0, spread(DIRT))), record(chunk(0, 0, spread(GRASS))));
+
+        ProtoSlimeFile file = read(base);
+
+        assertEquals(1, SlimeJournal.replay(ByteBuffer.wrap(journal, 0, journal.length - 3), ByteBuffer.wrap(base), file));
+        assertArrayEquals(spread(DIRT), blocks(file, 0, 0));
+    }
+
+    @Test
+    public void corruptedRecordStopsTheReplay() throws IOException {
+        byte[] base = write(snapshot(chunk(0, 0, spread(STONE))));
+
+        byte[] first = record(chunk(0, 0, spread(DIRT))),
+            second = record(chunk(0, 0, spread(GRASS)));
+
+        // First byte of the compressed payload, right after the record header
+        second[SlimeJournal.RECORD_HEADER_SIZE] ^= 1;
+
+        ProtoSlimeFile file = read(base);
+
+        assertEquals(1, SlimeJournal.replay(ByteBuffer.wrap(journal(base, first, second)), ByteBuffer.wrap(base), file));
+        assertArrayEquals(spread(DIRT), blocks(file, 0, 0));
+    }
+
+    @Test
+    public void journalOfAnotherFileIsIgnored() throws IOException {
+        byte[] base = write(snapshot(chunk(0, 0, spread(STONE)))),
+            other = write(snapshot(chunk(0, 0, spread(DIRT))));
+
+        ProtoSlimeFile file = read(base);
+
+        byte[] journal = journal(other, record(chunk(0, 0, spread(GRASS))));
+
+        assertEquals(0, SlimeJournal.replay(ByteBuffer.wrap(journal), ByteBuffer.wrap(base), file));
+        assertArrayEquals(spread(STONE), blocks(file, 0, 0));
+    }
+
+    @Test
+    public void checksumCoversTheWholeBuffer() {
+        byte[] bytes = { 1, 2, 3, 4 };
+
+        assertEquals(SlimeJournal.checksum(bytes, 0, bytes.length), SlimeJournal.checksum(ByteBuffer.wrap(bytes)));
+        assertNotEquals(SlimeJournal.checksum(bytes, 0, 3), SlimeJournal.checksum(ByteBuffer.wrap(bytes)));
+    }
+
+    private byte[] record(ProtoSlimeChunk... chunks) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (SlimeOutputStream slimeOutputStream = new SlimeOutputStream(outputStream)) {
+            slimeOutputStream.writeJournal(snapshot(chunks));
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private byte[] journal(byte[] base, byte[]... records) {
+        byte[] journal = SlimeJournal.createHeader(ByteBuffer.wrap(base));
+
+        for (byte[] record : records) {
+            int length = journal.length;
+
+            journal = Arrays.copyOf(journal, length + record.length);
+            System.arraycopy(record, 0, journal, length, record.length);
+        }
+
+        return journal;
+    }
+
+    private char[] blocks(ProtoSlimeFile file, int x, int z) throws IOException {
+        ProtoSlimeChunk chunk = file.getProtoChunk(x, z);
+
+        assertNotNull(chunk);
+
+        return chunk.getSections()[0].getBlockIds();
+    }
+}
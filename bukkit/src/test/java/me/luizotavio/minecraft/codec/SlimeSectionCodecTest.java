@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.codec;
+
+import me.luizotavio.minecraft.SlimeTestWorlds;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static me.luizotavio.minecraft.SlimeTestWorlds.*;
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.BLOCK_DATA_SIZE;
+import static me.luizotavio.minecraft.codec.SlimeOutputStream.NIBBLE_ARRAY_SIZE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeSectionCodecTest {
+
+    private final SlimeSectionCodec codec = new SlimeSectionCodec();
+
+    @BeforeAll
+    public static void bootstrap() {
+        SlimeTestWorlds.bootstrap();
+    }
+
+    @Test
+    public void uniformSectionsTakeThreeBytes() throws IOException {
+        ByteBuffer buffer = write(spread(STONE));
+
+        assertEquals(3, buffer.remaining());
+        assertEquals(SlimeSectionCodec.SINGLE_ENCODING, buffer.get(0));
+        assertArrayEquals(spread(STONE), read(buffer));
+    }
+
+    @Test
+    public void fewBlocksArePacked() throws IOException {
+        char[] blockIds = spread(STONE, DIRT, GRASS);
+        ByteBuffer buffer = write(blockIds);
+
+        // Two bits per block
+        assertEquals(SlimeSectionCodec.PALETTE_ENCODING, buffer.get(0));
+        assertEquals(1 + 2 + 3 * 2 + BLOCK_DATA_SIZE / 32 * 8, buffer.remaining());
+        assertArrayEquals(blockIds, read(buffer));
+    }
+
+    @Test
+    public void manyBlocksAreRaw() throws IOException {
+        char[] blockIds = spread(stableIds(600));
+        ByteBuffer buffer = write(blockIds);
+
+        assertEquals(SlimeSectionCodec.RAW_ENCODING, buffer.get(0));
+        assertEquals(1 + BLOCK_DATA_SIZE + NIBBLE_ARRAY_SIZE, buffer.remaining());
+        assertArrayEquals(blockIds, read(buffer));
+    }
+
+    @Test
+    public void paletteIsClearedBetweenSections() throws IOException {
+        write(spread(stableIds(600)));
+
+        assertArrayEquals(spread(DIRT, PLANKS), read(write(spread(DIRT, PLANKS))));
+    }
+
+    @Test
+    public void legacyBlocksHaveNoEncodingByte() {
+        ByteBuffer buffer = ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE);
+
+        codec.writeLegacy(buffer, spread((char) (PLANKS | 3), STONE));
+
+        assertEquals(BLOCK_DATA_SIZE + NIBBLE_ARRAY_SIZE, buffer.position());
+        assertEquals(5, buffer.get(0));
+        assertEquals(1, buffer.get(1));
+        assertEquals(3, buffer.get(BLOCK_DATA_SIZE));
+    }
+
+    @Test
+    public void unknownEncodingIsRejected() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 7 });
+
+        assertThrows(IOException.class, () -> SlimeSectionCodec.read(buffer, new char[BLOCK_DATA_SIZE]));
+    }
+
+    @Test
+    public void invalidPaletteIsRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+
+        buffer.put(SlimeSectionCodec.PALETTE_ENCODING);
+        buffer.putShort((short) 1);
+        buffer.flip();
+
+        assertThrows(IOException.class, () -> SlimeSectionCodec.read(buffer, new char[BLOCK_DATA_SIZE]));
+    }
+
+    @Test
+    public void lightFlagsRoundTrip() throws IOException {
+        byte[] constant = new byte[NIBBLE_ARRAY_SIZE],
+            varied = new byte[NIBBLE_ARRAY_SIZE];
+
+        Arrays.fill(constant, (byte) 0x77);
+
+        for (int index = 0; index < varied.length; index++) {
+            varied[index] = (byte) index;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + NIBBLE_ARRAY_SIZE);
+
+        SlimeSectionCodec.writeLight(buffer, null);
+        SlimeSectionCodec.writeLight(buffer, constant);
+        SlimeSectionCodec.writeLight(buffer, varied);
+
+        assertEquals(1 + 2 + 1 + NIBBLE_ARRAY_SIZE, buffer.position());
+
+        buffer.flip();
+
+        assertArrayEquals(new byte[NIBBLE_ARRAY_SIZE], SlimeSectionCodec.readLight(buffer));
+        assertArrayEquals(constant, SlimeSectionCodec.readLight(buffer));
+        assertArrayEquals(varied, SlimeSectionCodec.readLight(buffer));
+    }
+
+    @Test
+    public void unknownLightFlagIsRejected() {
+        assertThrows(IOException.class, () -> SlimeSectionCodec.readLight(ByteBuffer.wrap(new byte[] { 9 })));
+    }
+
+    private ByteBuffer write(char[] blockIds) {
+        ByteBuffer buffer = ByteBuffer.allocate(SlimeSectionCodec.MAX_SECTION_SIZE);
+
+        codec.write(buffer, blockIds);
+        buffer.flip();
+
+        return buffer;
+    }
+
+    private char[] read(ByteBuffer buffer) throws IOException {
+        char[] blockIds = new char[BLOCK_DATA_SIZE];
+
+        SlimeSectionCodec.read(buffer, blockIds);
+
+        assertFalse(buffer.hasRemaining());
+
+        return blockIds;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2022] [LUIZ O. F. CORRÊA]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package me.luizotavio.minecraft.prototype;
+
+import me.luizotavio.minecraft.SlimeTestWorlds;
+import me.luizotavio.minecraft.common.version.WorldVersion;
+import me.luizotavio.minecraft.metrics.SlimeMetric;
+import me.luizotavio.minecraft.metrics.SlimeMetrics;
+import me.luizotavio.minecraft.prototype.chunk.ProtoSlimeChunk;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static me.luizotavio.minecraft.SlimeTestWorlds.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Luiz Otávio de Farias Corrêa
+ * @since 18/10/2026
+ */
+public class SlimeTemplateCacheTest {
+
+    private byte[] data;
+    private long hash;
+
+    @BeforeAll
+    public static void bootstrap() {
+        SlimeTestWorlds.bootstrap();
+    }
+
+    @BeforeEach
+    public void writeWorld() throws IOException {
+        data = write(snapshot(chunk(0, 0, spread(STONE, DIRT)), chunk(1, 0, spread(GRASS))));
+        hash = SlimeTemplateCache.hash(ByteBuffer.wrap(data), null);
+    }
+
+    @Test
+    public void matchingContentHits() throws IOException {
+        SlimeTemplateCache cache = new SlimeTemplateCache();
+        ProtoSlimeFile file = read(data);
+
+        long misses = SlimeMetrics.get(SlimeMetric.TEMPLATE_CACHE_MISSES),
+            hits = SlimeMetrics.get(SlimeMetric.TEMPLATE_CACHE_HITS);
+
+        assertNull(cache.get("arena", WorldVersion.V1_8_R3, hash));
+
+        SlimeTemplate template = cache.put("arena", WorldVersion.V1_8_R3, hash, file);
+
+        assertSame(template, cache.get("arena", WorldVersion.V1_8_R3, hash));
+        assertSame(file, template.getFile());
+        assertTrue(file.isSealed());
+
+        assertEquals(misses + 1, SlimeMetrics.get(SlimeMetric.TEMPLATE_CACHE_MISSES));
+        assertEquals(hits + 1, SlimeMetrics.get(SlimeMetric.TEMPLATE_CACHE_HITS));
+    }
+
+    @Test
+    public void otherContentOrVersionMisses() throws IOException {
+        SlimeTemplateCache cache = new SlimeTemplateCache();
+
+        cache.put("arena", WorldVersion.V1_8_R3, hash, read(data));
+
+        assertNull(cache.get("arena", WorldVersion.V1_8_R3, hash + 1));
+        assertNull(cache.get("arena", WorldVersion.V1_9_R1, hash));
+        assertNull(cache.get("lobby", WorldVersion.V1_8_R3, hash));
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() throws IOException {
+        SlimeTemplateCache cache = new SlimeTemplateCache();
+
+        cache.setCapacity(2);
+
+        cache.put("first", WorldVersion.V1_8_R3, hash, read(data));
+        cache.put("second", WorldVersion.V1_8_R3, hash, read(data));
+
+        cache.get("first", WorldVersion.V1_8_R3, hash);
+        cache.put("third", WorldVersion.V1_8_R3, hash, read(data));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("first", WorldVersion.V1_8_R3, hash));
+        assertNull(cache.get("second", WorldVersion.V1_8_R3, hash));
+    }
+
+    @Test
+    public void templatesOverTheLimitAreEvicted() throws IOException {
+        SlimeTemplateCache cache = new SlimeTemplateCache();
+
+        cache.setMemoryLimit(0);
+
+        SlimeTemplate template = cache.put("arena", WorldVersion.V1_8_R3, hash, read(data));
+
+        assertNotNull(template);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMemoryUsage());
+    }
+
+    @Test
+    public void chunksAreDecodedOnce() throws IOException {
+        SlimeTemplateCache cache = new SlimeTemplateCache();
+        SlimeTemplate template = cache.put("arena", WorldVersion.V1_8_R3, hash, read(data));
+
+        ProtoSlimeChunk chunk = template.getProtoChunk(0, 0);
+
+        assertNotNull(chunk);
+        assertSame(chunk, template.getProtoChunk(0, 0));
+        assertEquals(1, template.getDecodedChunkCount());
+        assertNull(template.getProtoChunk(9, 9));
+
+        cache.invalidate("arena");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, template.getDecodedChunkCount());
+    }
+
+    @Test
+    public void hashDependsOnHowBytesAreSplit() {
+        byte[] journal = { 1, 2, 3 };
+        byte[] joined = new byte[data.length + journal.length];
+
+        System.arraycopy(data, 0, joined, 0, data.length);
+        System.arraycopy(journal, 0, joined, data.length, journal.length);
+
+        assertEquals(hash, SlimeTemplateCache.hash(ByteBuffer.wrap(data), null));
+        assertNotEquals(hash, SlimeTemplateCache.hash(ByteBuffer.wrap(data), ByteBuffer.wrap(journal)));
+        assertNotEquals(SlimeTemplateCache.hash(ByteBuffer.wrap(joined), null), SlimeTemplateCache.hash(ByteBuffer.wrap(data), ByteBuffer.wrap(journal)));
+    }
+}
@@ -50,6 +50,7 @@ import java.util.zip.ZipInputStream;
 public class SlimePlugin extends JavaPlugin {
 
     private File worldFolder;
+    private SlimeKorld slimeKorld;
 
     @Override
     public void onLoad() {
@@ -97,7 +98,7 @@ public class SlimePlugin extends JavaPlugin {
 
     @Override
     public void onEnable() {
-        SlimeKorld slimeKorld = BukkitSlimeKorld.createInstance(this);
+        slimeKorld = BukkitSlimeKorld.createInstance(this);
 
         World world = null;
 
@@ -130,5 +131,8 @@ public class SlimePlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (slimeKorld != null) {
+            slimeKorld.shutdown();
+        }
     }
 }
@@ -28,7 +28,6 @@ import me.luizotavio.minecraft.common.SlimeWorld;
 import me.luizotavio.minecraft.common.exception.InternalSlimeException;
 import me.luizotavio.minecraft.common.service.SlimeKorld;
 import me.luizotavio.minecraft.common.settings.factory.SettingsPropertyFactory;
-import me.luizotavio.minecraft.common.util.Pair;
 import me.luizotavio.minecraft.common.version.WorldVersion;
 import me.saiintbrisson.minecraft.command.annotation.Command;
 import me.saiintbrisson.minecraft.command.command.Context;
@@ -72,11 +71,9 @@ public class SlimeCommand {
         SlimeKorld slimeKorld = Bukkit.getServicesManager()
             .load(SlimeKorld.class);
 
-        Pair<SlimeWorld, byte[]> pair = slimeKorld.getFactory()
-            .transform(player.getWorld());
-
         // Save it to the new format
-        slimeKorld.getLoaderStrategy().save(pair.getKey(), pair.getValue());
+        slimeKorld.getFactory()
+            .convert(player.getWorld());
 
         player.sendMessage("§aWorld converted to new format");
     }